@@ -0,0 +1,6 @@
+-- Switch USER_SEQ to the step used by the pooled-lo optimizer (User.id allocationSize = 50)
+-- Hibernate reserves 50 IDs per NEXTVAL, so batch inserts no longer pay a sequence round trip per row
+-- Run as the application user:
+--   sqlplus userapi/userapi123@//localhost:1521/FREEPDB1 @V2__pooled_user_seq.sql
+
+ALTER SEQUENCE USER_SEQ INCREMENT BY 50;
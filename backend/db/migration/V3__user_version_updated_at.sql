@@ -0,0 +1,13 @@
+-- Optimistic-locking version and last-modified timestamp for users
+-- version backs the ETag / If-Match support on /api/users/{id}; updated_at backs Last-Modified
+-- Run as the application user:
+--   sqlplus userapi/userapi123@//localhost:1521/FREEPDB1 @V3__user_version_updated_at.sql
+
+ALTER TABLE users ADD (
+    version NUMBER(19,0) DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP
+);
+
+UPDATE users SET updated_at = created_at WHERE updated_at IS NULL;
+
+COMMIT;
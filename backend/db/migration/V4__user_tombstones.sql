@@ -0,0 +1,14 @@
+-- Delta sync support for GET /api/users/changes
+-- Deleted users leave a tombstone; changes are found by indexed range scans on the timestamps
+-- Run as the application user:
+--   sqlplus userapi/userapi123@//localhost:1521/FREEPDB1 @V4__user_tombstones.sql
+
+CREATE TABLE user_tombstones (
+    user_id NUMBER(19,0) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_user_tombstones PRIMARY KEY (user_id)
+);
+
+CREATE INDEX idx_user_tombstones_deleted_at ON user_tombstones(deleted_at);
+
+CREATE INDEX idx_users_updated_at ON users(updated_at);
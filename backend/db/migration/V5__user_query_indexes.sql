@@ -0,0 +1,16 @@
+-- Indexes for GET /api/users/query
+-- Prefix filters are written as UPPER(column) LIKE 'ABC%', which function-based indexes can range-scan.
+-- Sort indexes end with id, the tie-breaker, so ORDER BY column, id reads straight off the index.
+-- Run as the application user:
+--   sqlplus userapi/userapi123@//localhost:1521/FREEPDB1 @V5__user_query_indexes.sql
+
+CREATE INDEX idx_users_upper_name ON users(UPPER(name));
+CREATE INDEX idx_users_upper_email ON users(UPPER(email));
+CREATE INDEX idx_users_phone ON users(phone);
+
+-- The single-column indexes are prefixes of the composite ones that replace them
+DROP INDEX idx_users_name;
+CREATE INDEX idx_users_name_id ON users(name, id);
+
+DROP INDEX idx_users_created_at;
+CREATE INDEX idx_users_created_at_id ON users(created_at, id);
@@ -0,0 +1,102 @@
+#!/usr/bin/env bash
+#
+# Class data sharing (CDS) archive for the packaged application, and a startup measurement
+#
+#   scripts/cds.sh archive   Build the jar, unpack it, and record a CDS archive from a training run
+#   scripts/cds.sh measure   Time to first request and RSS: default vs fast-startup vs fast-startup + CDS
+#
+# Both start the real application, so the database from application.properties must be up.
+# Set PROFILES (default prod) for extra profiles, RUNS (default 5) for measure.
+#
+# CDS cannot archive classes loaded from inside the Spring Boot fat jar, so the jar is unpacked
+# into target/cds: the application classes as app.jar plus lib/*.jar on a plain class path.
+# The archive is only valid for the same JDK and exactly that class path (kept in java.args).
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CDS_DIR=target/cds
+RUN_LOG="${PWD}/${CDS_DIR}/run.log"
+MVN=${MVN:-$([[ -x ./mvnw ]] && echo ./mvnw || echo mvn)}
+PORT=${PORT:-8080}
+PROFILES=${PROFILES:-prod}
+RUNS=${RUNS:-5}
+MAIN_CLASS=com.example.userapi.UserManagementApiApplication
+FIRST_REQUEST="http://localhost:${PORT}/api/users?limit=1"
+
+# Start "$@" in the background, wait for the first successful request, print "<ms> <rss kB>", stop it
+first_request() {
+    local started pid elapsed rss
+    started=$(date +%s%N)
+    "$@" --server.port="${PORT}" > "${RUN_LOG}" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "${FIRST_REQUEST}"; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "Application exited before serving a request; see ${RUN_LOG}" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - started) / 1000000 ))
+    rss=$(awk '/^VmRSS/ {print $2}' "/proc/${pid}/status")
+    kill -TERM "${pid}"
+    wait "${pid}" || true
+    echo "${elapsed} ${rss}"
+}
+
+archive() {
+    "${MVN}" -q -DskipTests package
+    rm -rf "${CDS_DIR}"
+    mkdir -p "${CDS_DIR}/exploded" "${CDS_DIR}/lib"
+    (cd "${CDS_DIR}/exploded" && jar xf ../../user-management-api-*.jar)
+    jar cf "${CDS_DIR}/app.jar" -C "${CDS_DIR}/exploded/BOOT-INF/classes" .
+    cp "${CDS_DIR}"/exploded/BOOT-INF/lib/*.jar "${CDS_DIR}/lib/"
+    rm -rf "${CDS_DIR}/exploded"
+
+    # A fixed, explicit class path: the archive is rejected if it differs at run time
+    (cd "${CDS_DIR}" && echo "-cp app.jar:$(ls lib/*.jar | sort | paste -sd:) ${MAIN_CLASS}") > "${CDS_DIR}/java.args"
+
+    # Training run: startup plus one request, so first-request classes are archived too;
+    # the JVM writes the archive when it exits on SIGTERM
+    (cd "${CDS_DIR}" && first_request java -XX:ArchiveClassesAtExit=app.jsa @java.args \
+        --spring.profiles.active="${PROFILES},fast-startup" > /dev/null)
+    echo "Archive written to ${CDS_DIR}/app.jsa. Run with:"
+    echo "  cd ${CDS_DIR} && java -XX:SharedArchiveFile=app.jsa @java.args --spring.profiles.active=${PROFILES},fast-startup"
+}
+
+measure() {
+    if [[ ! -f "${CDS_DIR}/app.jsa" ]]; then
+        archive
+    fi
+    local jar
+    jar=$(ls target/user-management-api-*.jar | head -1)
+    printf "%-24s %12s %12s\n" "variant" "first req ms" "RSS MB"
+    report "default" java -jar "${jar}" --spring.profiles.active="${PROFILES}"
+    report "fast-startup" java -jar "${jar}" --spring.profiles.active="${PROFILES},fast-startup"
+    # -Xshare:on fails instead of silently running without the archive; exec keeps the measured PID
+    report "fast-startup + CDS" bash -c 'cd "$0" && exec java -XX:SharedArchiveFile=app.jsa -Xshare:on @java.args "$@"' \
+        "${CDS_DIR}" --spring.profiles.active="${PROFILES},fast-startup"
+}
+
+# Median of RUNS cold starts for one variant
+report() {
+    local name=$1 times=() rss=() result
+    shift
+    for ((i = 0; i < RUNS; i++)); do
+        result=$(first_request "$@")
+        times+=("${result% *}")
+        rss+=("${result#* }")
+    done
+    printf "%-24s %12s %12s\n" "${name}" "$(median "${times[@]}")" "$(( $(median "${rss[@]}") / 1024 ))"
+}
+
+median() {
+    printf "%s\n" "$@" | sort -n | awk '{v[NR] = $1} END {print v[int((NR + 1) / 2)]}'
+}
+
+case "${1:-}" in
+    archive) archive ;;
+    measure) measure ;;
+    *) echo "Usage: $0 archive|measure" >&2; exit 2 ;;
+esac
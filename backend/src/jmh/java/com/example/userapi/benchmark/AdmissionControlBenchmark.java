@@ -0,0 +1,157 @@
+package com.example.userapi.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One misbehaving client vs everyone else, with and without admission control
+ *
+ * Every SQL statement is delayed by bench.db.latency and the pool has 20 connections.
+ * 64 threads share one client ID and pull 1000-row pages as fast as they can; 8 threads,
+ * each its own client, look users up by ID. Without admission control the greedy
+ * client holds the pool and the lookups queue behind it. With it, the greedy client
+ * gets fast 429s once its bucket is empty, and the lookups' latency should stay close
+ * to the injected database latency. Compare politeLookup's SampleTime p99.
+ *
+ * Rejections each client sees (429 quota, 503 overload) are reported as secondary results
+ * of the throughput runs in jmh-result.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class AdmissionControlBenchmark {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    @Param({"false", "true"})
+    public boolean admission;
+
+    @Param({"20ms"})
+    public String dbLatency;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    private final AtomicInteger politeClients = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(true,
+                "app.admission.enabled=" + admission,
+                "app.admission.client-header=" + CLIENT_HEADER,
+                "app.cache.users.enabled=false",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "bench.db.latency=" + dbLatency);
+        BenchmarkContexts.seedUsers(context, rows);
+        ids = BenchmarkContexts.userIds(context);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Each polite thread is a separate client with its own quota
+    @State(Scope.Thread)
+    public static class PoliteClient {
+
+        String id;
+
+        @Setup(Level.Trial)
+        public void setup(AdmissionControlBenchmark benchmark) {
+            id = "polite-" + benchmark.politeClients.incrementAndGet();
+        }
+    }
+
+    // Rejected responses per iteration; each thread only counts its own client's
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rejections {
+
+        public long greedyQuota;
+
+        public long greedyOverload;
+
+        public long politeQuota;
+
+        public long politeOverload;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            greedyQuota = 0;
+            greedyOverload = 0;
+            politeQuota = 0;
+            politeOverload = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(64)
+    public int greedyListing(Rejections rejections) throws Exception {
+        int status = get("?after=" + ids[ThreadLocalRandom.current().nextInt(ids.length)] + "&limit=1000", "greedy");
+        if (status == 429) {
+            rejections.greedyQuota++;
+        } else if (status == 503) {
+            rejections.greedyOverload++;
+        }
+        return status;
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(8)
+    public int politeLookup(PoliteClient politeClient, Rejections rejections) throws Exception {
+        int status = get("/" + ids[ThreadLocalRandom.current().nextInt(ids.length)], politeClient.id);
+        if (status == 429) {
+            rejections.politeQuota++;
+        } else if (status == 503) {
+            rejections.politeOverload++;
+        }
+        return status;
+    }
+
+    private int get(String path, String clientId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(CLIENT_HEADER, clientId)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserManagementApiApplication;
+import com.example.userapi.entity.User;
+import com.example.userapi.search.UserSearchIndex;
+import com.example.userapi.service.UserBatchService;
+import com.example.userapi.service.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared setup for benchmarks: boots the application against its own in-memory
+ * H2 database (Oracle mode, profile "bench") and seeds it with synthetic users
+ */
+public final class BenchmarkContexts {
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Mike", "Priya", "Arjun", "Ananya", "Rahul", "Sara", "Li", "Omar"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Doe", "Smith", "Johnson", "Sharma", "Iyer", "Khan", "Garcia", "Chen", "Nair", "Brown"
+    };
+
+    private static final int SEED_CHUNK = 1000;
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Start the application with the "bench" profile
+     * @param web true to start the embedded web server on a random port
+     * @param properties Extra "key=value" properties for this context
+     */
+    public static ConfigurableApplicationContext start(boolean web, String... properties) {
+        return start(web, new String[] {"bench"}, properties);
+    }
+
+    /**
+     * Start the application with the given profiles (later profiles win)
+     * @param web true to start the embedded web server on a random port
+     * @param profiles Active profiles; should end with "bench" so the H2 stand-in is used
+     * @param properties Extra "key=value" properties for this context
+     */
+    public static ConfigurableApplicationContext start(boolean web, String[] profiles, String... properties) {
+        List<String> args = new ArrayList<>();
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        // A private database per context, so parameter combinations never share data
+        args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1");
+        args.add(web ? "--server.port=0" : "--spring.main.web-application-type=none");
+        // Passed as command-line arguments, which take precedence over every properties file
+        return new SpringApplicationBuilder(UserManagementApiApplication.class)
+                .profiles(profiles)
+                .run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Insert {@code count} synthetic users through the batch path
+     */
+    public static void seedUsers(ConfigurableApplicationContext context, int count) {
+        UserBatchService batchService = context.getBean(UserBatchService.class);
+        List<User> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < count; i++) {
+            chunk.add(sampleUser(i));
+            if (chunk.size() == SEED_CHUNK) {
+                batchService.createUsers(chunk);
+                chunk = new ArrayList<>(SEED_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            batchService.createUsers(chunk);
+        }
+    }
+
+    /**
+     * IDs of every user in the database, in ID order
+     */
+    public static long[] userIds(ConfigurableApplicationContext context) {
+        List<Long> ids = new ArrayList<>();
+        context.getBean(UserService.class).streamAllUsers(user -> ids.add(user.getId()));
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Block until the in-memory search index has finished its initial load
+     */
+    public static void awaitSearchIndex(ConfigurableApplicationContext context) throws InterruptedException {
+        UserSearchIndex index = context.getBean(UserSearchIndex.class);
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!index.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Deterministic synthetic user number {@code i}
+     */
+    public static User sampleUser(int i) {
+        String name = FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i;
+        return new User(name, "user" + i + "@example.com", String.format("%010d", i));
+    }
+}
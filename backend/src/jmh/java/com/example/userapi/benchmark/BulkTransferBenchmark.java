@@ -0,0 +1,141 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.bulk.BulkFormat;
+import com.example.userapi.bulk.UserExportService;
+import com.example.userapi.bulk.UserImportService;
+import com.example.userapi.dto.BatchItemResult;
+import com.example.userapi.dto.ImportSummary;
+import com.example.userapi.entity.User;
+import com.example.userapi.service.UserBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through POST /api/users/import and GET /api/users/export (service level)
+ *
+ * Each operation is one row (@OperationsPerInvocation), so the score reads directly
+ * as rows/s. Every invocation imports fresh emails, so no row is rejected as a duplicate.
+ * batchCreate is the existing JPA /batch path on the same rows, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class BulkTransferBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    private ConfigurableApplicationContext context;
+
+    private UserImportService importService;
+
+    private UserExportService exportService;
+
+    private UserBatchService batchService;
+
+    private int invocation;
+
+    private byte[] csv;
+
+    private byte[] ndjson;
+
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = BenchmarkContexts.start(false);
+        importService = context.getBean(UserImportService.class);
+        exportService = context.getBean(UserExportService.class);
+        batchService = context.getBean(UserBatchService.class);
+        // Something to export from the first invocation on
+        importService.importUsers(new ByteArrayInputStream(csv(ROWS, "seed")), BulkFormat.CSV);
+    }
+
+    // Fresh input per invocation; built outside the measured time
+    @Setup(Level.Invocation)
+    public void nextInput() {
+        String batch = "b" + invocation++;
+        csv = csv(ROWS, batch + "c");
+        ndjson = ndjson(ROWS, batch + "n");
+        users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(new User("Batch User " + i, batch + "j" + i + "@example.com", String.format("%010d", i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportSummary importCsv() throws IOException {
+        return importService.importUsers(new ByteArrayInputStream(csv), BulkFormat.CSV);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportSummary importNdjson() throws IOException {
+        return importService.importUsers(new ByteArrayInputStream(ndjson), BulkFormat.NDJSON);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BatchItemResult> batchCreate() {
+        return batchService.createUsers(users);
+    }
+
+    // Export throughput grows with the table; compare formats within one run, not across runs
+    @Benchmark
+    public void exportCsv() throws IOException {
+        exportService.exportUsers(OutputStream.nullOutputStream(), BulkFormat.CSV);
+    }
+
+    @Benchmark
+    public void exportNdjson() throws IOException {
+        exportService.exportUsers(OutputStream.nullOutputStream(), BulkFormat.NDJSON);
+    }
+
+    private static byte[] csv(int rows, String batch) {
+        StringBuilder out = new StringBuilder(rows * 64).append("name,email,phone\n");
+        for (int i = 0; i < rows; i++) {
+            out.append("Import User ").append(i).append(',')
+               .append(batch).append('-').append(i).append("@example.com,")
+               .append(String.format("%010d", i)).append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ndjson(int rows, String batch) {
+        StringBuilder out = new StringBuilder(rows * 80);
+        for (int i = 0; i < rows; i++) {
+            out.append("{\"name\":\"Import User ").append(i)
+               .append("\",\"email\":\"").append(batch).append('-').append(i)
+               .append("@example.com\",\"phone\":\"").append(String.format("%010d", i)).append("\"}\n");
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.userapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread vs virtual-thread request handling under a slow database
+ *
+ * Every SQL statement is delayed by bench.db.latency (LatencyInjectingDataSource) and
+ * the pool is capped at 20 connections behind the concurrency limiter. 384 clients
+ * hammer a database-bound endpoint while 128 clients call one served from memory.
+ *
+ * With platform threads the database-bound requests occupy all 200 Tomcat workers
+ * waiting for connections, so the in-memory requests queue behind them. With virtual
+ * threads the waiting requests only park, and the in-memory endpoint's latency should
+ * stay flat. Compare per-method throughput and the SampleTime p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ExecutionModelBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"20ms"})
+    public String dbLatency;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        context = BenchmarkContexts.start(true,
+                "app.threads.virtual.enabled=" + "virtual".equals(threads),
+                "app.datasource.limiter.enabled=true",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "bench.db.latency=" + dbLatency);
+        BenchmarkContexts.seedUsers(context, rows);
+        ids = BenchmarkContexts.userIds(context);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // One keyset page: always reaches the database
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(384)
+    public int databaseBound() throws Exception {
+        return get("?after=" + ids[ThreadLocalRandom.current().nextInt(ids.length)] + "&limit=20");
+    }
+
+    // Maintained counter: never touches the database
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(128)
+    public int inMemory() throws Exception {
+        return get("/count");
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode();
+    }
+}
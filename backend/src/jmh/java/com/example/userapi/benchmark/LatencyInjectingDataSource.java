@@ -0,0 +1,100 @@
+package com.example.userapi.benchmark;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Makes every statement execution take at least bench.db.latency, as a slow remote
+ * database would, while the connection stays checked out
+ *
+ * Picked up by component scanning only when the benchmark sources are on the classpath
+ * and the property is set. Wraps the pool before DatabaseConcurrencyLimiter does.
+ */
+@Component
+@ConditionalOnProperty(name = "bench.db.latency")
+public class LatencyInjectingDataSource implements BeanPostProcessor, Ordered {
+
+    private final long latencyMillis;
+
+    public LatencyInjectingDataSource(@Value("${bench.db.latency}") Duration latency) {
+        this.latencyMillis = latency.toMillis();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return new SlowDataSource((DataSource) bean);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private Connection slow(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        return slowStatement((Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private Object slowStatement(Statement statement) {
+        // Proxy every interface the driver's statement implements (PreparedStatement, CallableStatement)
+        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                ClassUtils.getAllInterfaces(statement), (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(latencyMillis);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    // Closeable so the wrapped pool is still closed when each benchmark trial's context shuts down
+    private final class SlowDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return slow(super.getConnection());
+        }
+
+        @Override
+        public void close() throws Exception {
+            DataSource target = getTargetDataSource();
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.userapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of GET /api/users before and after the logging/JSON changes
+ *
+ * before: synchronous console + file appenders, SQL echoed by show-sql with
+ *         format_sql, DEBUG application logging, pretty-printed JSON
+ * after:  async appenders with a JSON-lines file, SQL and DEBUG through the async
+ *         queue, compact JSON
+ *
+ * Both variants log at DEBUG, so the difference is the pipeline, not the volume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(16)
+@Fork(1)
+public class ListEndpointBenchmark {
+
+    @Param({"before", "after"})
+    public String pipeline;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        if ("before".equals(pipeline)) {
+            context = BenchmarkContexts.start(true,
+                    "logging.config=classpath:logback-sync.xml",
+                    "logging.file.name=target/bench-logs/sync.log",
+                    "logging.level.com.example.userapi=DEBUG",
+                    "spring.jpa.show-sql=true",
+                    "spring.jpa.properties.hibernate.format_sql=true",
+                    "spring.jackson.serialization.indent-output=true");
+        } else {
+            context = BenchmarkContexts.start(true,
+                    "logging.file.name=target/bench-logs/async.log",
+                    "logging.level.com.example.userapi=DEBUG",
+                    "logging.level.org.hibernate.SQL=DEBUG");
+        }
+        BenchmarkContexts.seedUsers(context, rows);
+        ids = BenchmarkContexts.userIds(context);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listPage() throws Exception {
+        long after = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?after=" + after + "&limit=100")).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.dto.UserLookupResult;
+import com.example.userapi.entity.User;
+import com.example.userapi.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving a list of IDs: one multi-get vs a findById per ID
+ *
+ * Each operation resolves idsPerCall random IDs. With the cache off every ID reaches
+ * the database, so the loop pays one round trip per ID and the multi-get one per
+ * 1000 IDs. With the cache on, both are mostly served from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MultiGetBenchmark {
+
+    @Param({"100", "2500"})
+    public int idsPerCall;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(false,
+                "app.cache.users.enabled=" + cacheEnabled,
+                "app.cache.users.max-size=" + rows);
+        BenchmarkContexts.seedUsers(context, rows);
+        userService = context.getBean(UserService.class);
+        ids = BenchmarkContexts.userIds(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserLookupResult multiGet() {
+        return userService.getUsersByIds(randomIds());
+    }
+
+    @Benchmark
+    public List<User> findByIdLoop() {
+        List<User> users = new ArrayList<>(idsPerCall);
+        for (Long id : randomIds()) {
+            userService.getUserById(id).ifPresent(users::add);
+        }
+        return users;
+    }
+
+    private List<Long> randomIds() {
+        List<Long> selected = new ArrayList<>(idsPerCall);
+        for (int i = 0; i < idsPerCall; i++) {
+            selected.add(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        }
+        return selected;
+    }
+}
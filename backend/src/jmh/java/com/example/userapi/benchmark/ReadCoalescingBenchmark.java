@@ -0,0 +1,169 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache-missing reads under concurrency, with and without request coalescing
+ *
+ * The user cache and search index are off so every call reaches UserReadCoalescer, and
+ * each statement takes bench.db.latency on a 10-connection pool, so identical reads
+ * overlap as they would against a loaded Oracle instance.
+ *
+ * off:          every call runs its own query
+ * singleflight: concurrent identical reads share one query
+ * batched:      single-flight plus 2ms ID micro-batches (one IN query per window)
+ *
+ * hotUser/hotSearch hit 10 keys, where single-flight should shine; distinctUsers
+ * spreads over every row, where only batching reduces round trips. The executed vs
+ * coalesced counts are reported as the secondary results "executed" and "coalesced"
+ * of the throughput runs in jmh-result.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(64)
+@Fork(1)
+public class ReadCoalescingBenchmark {
+
+    private static final int HOT_KEYS = 10;
+
+    @Param({"off", "singleflight", "batched"})
+    public String coalescing;
+
+    @Param({"5ms"})
+    public String dbLatency;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private long[] ids;
+
+    private String[] hotTerms;
+
+    // Set by the one thread whose CoalescingCalls reports the counts
+    private final AtomicBoolean callsReporter = new AtomicBoolean();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(false,
+                "app.cache.users.enabled=false",
+                "app.search.index.enabled=false",
+                "app.users.coalescing.enabled=" + !"off".equals(coalescing),
+                "app.users.coalescing.batch-window=" + ("batched".equals(coalescing) ? "2ms" : "0ms"),
+                "spring.datasource.hikari.maximum-pool-size=10",
+                "bench.db.latency=" + dbLatency);
+        BenchmarkContexts.seedUsers(context, rows);
+        userService = context.getBean(UserService.class);
+        ids = BenchmarkContexts.userIds(context);
+        hotTerms = new String[HOT_KEYS];
+        for (int i = 0; i < HOT_KEYS; i++) {
+            hotTerms[i] = BenchmarkContexts.sampleUser(i).getName();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * users.coalescing.calls over each iteration, all operations together
+     *
+     * JMH adds up auxiliary counters over threads while the meters are application-wide,
+     * so only the first thread to set up reports them; every other thread reports zero.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CoalescingCalls {
+
+        public long executed;
+
+        public long coalesced;
+
+        private ReadCoalescingBenchmark benchmark;
+
+        private boolean reporter;
+
+        private double executedBefore;
+
+        private double coalescedBefore;
+
+        @Setup(Level.Trial)
+        public void claim(ReadCoalescingBenchmark benchmark) {
+            this.benchmark = benchmark;
+            reporter = benchmark.callsReporter.compareAndSet(false, true);
+        }
+
+        @Setup(Level.Iteration)
+        public void start() {
+            executed = 0;
+            coalesced = 0;
+            executedBefore = benchmark.calls("executed");
+            coalescedBefore = benchmark.calls("coalesced");
+        }
+
+        @TearDown(Level.Iteration)
+        public void finish() {
+            if (reporter) {
+                executed = Math.round(benchmark.calls("executed") - executedBefore);
+                coalesced = Math.round(benchmark.calls("coalesced") - coalescedBefore);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<User> hotUser(CoalescingCalls calls) {
+        return userService.getUserById(ids[ThreadLocalRandom.current().nextInt(HOT_KEYS)]);
+    }
+
+    @Benchmark
+    public List<User> hotSearch(CoalescingCalls calls) {
+        return userService.searchUsersByName(hotTerms[ThreadLocalRandom.current().nextInt(HOT_KEYS)], 20);
+    }
+
+    @Benchmark
+    public Optional<User> distinctUsers(CoalescingCalls calls) {
+        return userService.getUserById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    // Sum over every operation; zero with coalescing off, where the meters are never hit
+    private double calls(String result) {
+        double total = 0;
+        for (Counter counter : context.getBean(MeterRegistry.class).find("users.coalescing.calls")
+                .tag("result", result).counters()) {
+            total += counter.count();
+        }
+        return total;
+    }
+}
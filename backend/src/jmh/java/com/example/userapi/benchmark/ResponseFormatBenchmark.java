@@ -0,0 +1,143 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.entity.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * End-to-end latency of GET /api/users?limit=1000 per response format and encoding
+ *
+ * Each call negotiates the format with Accept and compression with Accept-Encoding,
+ * then decompresses and parses the body as a client would. Responses and the bytes
+ * received for them are reported as the secondary results "responses" and "wireBytes"
+ * of the throughput runs in jmh-result.json; wireBytes / responses is the average size.
+ *
+ * Over loopback, sending bytes is nearly free, so gzip shows its CPU cost but not its
+ * transfer savings; the wire byte counts are what to weigh against real bandwidth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<List<User>>() {
+    };
+
+    @Param({"application/json", "application/cbor", "application/x-jackson-smile"})
+    public String accept;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    private ObjectMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(true);
+        BenchmarkContexts.seedUsers(context, rows);
+        ids = BenchmarkContexts.userIds(context);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        switch (accept) {
+            case "application/cbor":
+                mapper = Jackson2ObjectMapperBuilder.cbor().build();
+                break;
+            case "application/x-jackson-smile":
+                mapper = Jackson2ObjectMapperBuilder.smile().build();
+                break;
+            default:
+                mapper = Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Bytes received per iteration, before decompression
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+
+        public long responses;
+
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            responses = 0;
+            wireBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public List<User> listPage(WireBytes received) throws Exception {
+        // Start early enough that every page is full
+        long after = ids[ThreadLocalRandom.current().nextInt(ids.length - 1000)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?after=" + after + "&limit=1000"))
+                .header("Accept", accept)
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        received.responses++;
+        received.wireBytes += response.body().length;
+        return decode(response);
+    }
+
+    private List<User> decode(HttpResponse<byte[]> response) throws IOException {
+        InputStream body = new ByteArrayInputStream(response.body());
+        boolean gzipped = response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+        try (InputStream in = gzipped ? new GZIPInputStream(body) : body) {
+            return mapper.readValue(in, USER_LIST);
+        }
+    }
+}
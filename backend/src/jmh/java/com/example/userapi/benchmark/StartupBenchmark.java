@@ -0,0 +1,103 @@
+package com.example.userapi.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold start: time from creating the application context to the first answered
+ * GET /api/users?limit=1, default configuration vs the "fast-startup" profile
+ *
+ * Every fork is a fresh JVM that starts the application exactly once, so class loading
+ * and JIT are cold as on a new instance. Resident memory after the first request is
+ * reported per fork as the secondary result "rssKb" in jmh-result.json (Linux only;
+ * zero elsewhere). JVM launch itself and CDS are not covered here; for
+ * those, use scripts/cds.sh measure against the packaged jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-startup"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    // Read once the measured request has returned, before the context is closed
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResidentMemory {
+
+        public long rssKb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rssKb = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void read() throws IOException {
+            Path status = Path.of("/proc/self/status");
+            if (!Files.isReadable(status)) {
+                return;
+            }
+            // Format: "VmRSS:     123456 kB"
+            try (Stream<String> lines = Files.lines(status)) {
+                rssKb = lines.filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("[^0-9]", "")))
+                        .findFirst()
+                        .orElse(0);
+            }
+        }
+    }
+
+    @Benchmark
+    public int startToFirstRequest(ResidentMemory memory) throws Exception {
+        String[] profiles = "default".equals(profile)
+                ? new String[] {"bench"}
+                : new String[] {profile, "bench"};
+        context = BenchmarkContexts.start(true, profiles);
+        String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/users?limit=1";
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
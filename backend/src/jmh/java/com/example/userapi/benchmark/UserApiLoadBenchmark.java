@@ -0,0 +1,136 @@
+package com.example.userapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test of the REST endpoints at a fixed concurrency
+ *
+ * Each JMH thread is one client issuing requests back to back over HTTP/1.1 with
+ * keep-alive. Throughput mode gives requests/s; SampleTime gives the latency
+ * percentiles at that load.
+ *
+ * The config parameter compares the base configuration (SQL and DEBUG logging on,
+ * Hikari defaults) with the "prod" performance profile on the same stand-in database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(32)
+@Fork(1)
+public class UserApiLoadBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"default", "prod"})
+    public String config;
+
+    private final AtomicLong createdSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        if ("prod".equals(config)) {
+            context = BenchmarkContexts.start(true, new String[] {"prod", "bench"});
+        } else {
+            // The bench profile quiets SQL and logging; restore what application.properties ships with
+            context = BenchmarkContexts.start(true, new String[] {"bench"},
+                    "logging.level.com.example.userapi=DEBUG",
+                    "logging.level.org.hibernate.SQL=DEBUG");
+        }
+        BenchmarkContexts.seedUsers(context, rows);
+        BenchmarkContexts.awaitSearchIndex(context);
+        ids = BenchmarkContexts.userIds(context);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listPage() throws Exception {
+        return get("?after=" + randomId() + "&limit=100");
+    }
+
+    @Benchmark
+    public int getById() throws Exception {
+        return get("/" + randomId());
+    }
+
+    @Benchmark
+    public int search() throws Exception {
+        return get("/search?name=user" + ThreadLocalRandom.current().nextInt(100) + "&limit=20");
+    }
+
+    @Benchmark
+    public int count() throws Exception {
+        return get("/count");
+    }
+
+    @Benchmark
+    public int create() throws Exception {
+        long n = createdSequence.incrementAndGet();
+        String body = "{\"name\":\"Load Test " + n + "\",\"email\":\"load" + n + "@example.com\",\"phone\":\"5550000000\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            // An erroring endpoint would otherwise look fast
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
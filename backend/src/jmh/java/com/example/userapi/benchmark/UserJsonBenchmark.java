@@ -0,0 +1,73 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.entity.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization and deserialization cost of User payloads
+ * (a single user and a page of users, as returned by the API)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<List<User>>() {
+    };
+
+    @Param({"1", "100"})
+    public int size;
+
+    private ObjectMapper mapper;
+
+    private List<User> users;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        // Same builder Spring Boot uses, so modules (java.time) match the running application
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = BenchmarkContexts.sampleUser(i);
+            user.setId((long) i + 1);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(user.getCreatedAt());
+            user.setVersion(0L);
+            users.add(user);
+        }
+        json = mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<User> deserialize() throws Exception {
+        return mapper.readValue(json, USER_LIST);
+    }
+}
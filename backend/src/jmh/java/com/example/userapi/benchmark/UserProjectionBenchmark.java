@@ -0,0 +1,89 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.dto.UserField;
+import com.example.userapi.entity.User;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity loading vs column projections for list responses
+ *
+ * Run with the gc profiler (the benchmark profile's default) and compare
+ * gc.alloc.rate.norm: bytes allocated per operation for the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    // What the React list view actually shows
+    private static final Set<UserField> LIST_FIELDS = UserField.parseList("name,email");
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private UserService userService;
+
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(false);
+        BenchmarkContexts.seedUsers(context, rows);
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // The original GET /api/users path: every column, every row, as managed entities
+    @Benchmark
+    public List<User> entityFindAll() {
+        return readOnly.execute(status -> userRepository.findAll());
+    }
+
+    // Keyset page of managed entities covering the same rows
+    @Benchmark
+    public List<User> entityPage() {
+        return userService.getUsersAfter(0, rows);
+    }
+
+    // Same rows, only id/name/email, no entities
+    @Benchmark
+    public List<Map<String, Object>> projectionPage() {
+        return userService.getUserFieldsAfter(0, rows, LIST_FIELDS);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer latency distribution (SampleTime reports p50/p90/p99/p99.9)
+ * with the user cache switched on and off, on the same data set
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        context = BenchmarkContexts.start(false,
+                "app.cache.users.enabled=" + cacheEnabled,
+                "app.cache.users.max-size=" + rows);
+        BenchmarkContexts.seedUsers(context, rows);
+        BenchmarkContexts.awaitSearchIndex(context);
+        userService = context.getBean(UserService.class);
+        ids = BenchmarkContexts.userIds(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public Optional<User> getUserByEmail() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return userService.getUserByEmail("user" + i + "@example.com");
+    }
+
+    @Benchmark
+    public List<User> searchUsersByName() {
+        return userService.searchUsersByName("user" + ThreadLocalRandom.current().nextInt(100), 20);
+    }
+
+    @Benchmark
+    public List<User> getUsersPage() {
+        return userService.getUsersAfter(randomId(), 100);
+    }
+
+    @Benchmark
+    public long getUserCount() {
+        return userService.getUserCount(false);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.entity.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and CPU per response for User payloads: JSON vs CBOR vs Smile,
+ * each with and without gzip
+ *
+ * encode is the server's cost per response (serialize, then compress); decode is the
+ * client's (decompress, then parse). encode reports the secondary results "encodings"
+ * and "wireBytes" in jmh-result.json; wireBytes / encodings is the encoded size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserWireFormatBenchmark {
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<List<User>>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+
+    private List<User> users;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        // Same builder the application's converters use
+        switch (format) {
+            case "cbor":
+                mapper = Jackson2ObjectMapperBuilder.cbor().build();
+                break;
+            case "smile":
+                mapper = Jackson2ObjectMapperBuilder.smile().build();
+                break;
+            default:
+                mapper = Jackson2ObjectMapperBuilder.json().build();
+        }
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = BenchmarkContexts.sampleUser(i);
+            user.setId((long) i + 1);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(user.getCreatedAt());
+            user.setVersion(0L);
+            users.add(user);
+        }
+        encoded = encodeUsers();
+    }
+
+    // Encoded output per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+
+        public long encodings;
+
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodings = 0;
+            wireBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(WireBytes output) throws IOException {
+        byte[] bytes = encodeUsers();
+        output.encodings++;
+        output.wireBytes += bytes.length;
+        return bytes;
+    }
+
+    private byte[] encodeUsers() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(compression) ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, users);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<User> decode() throws IOException {
+        InputStream bytes = new ByteArrayInputStream(encoded);
+        try (InputStream in = "gzip".equals(compression) ? new GZIPInputStream(bytes) : bytes) {
+            return mapper.readValue(in, USER_LIST);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.userapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -16,6 +17,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 // @EnableTransactionManagement enables Spring's annotation-driven transaction management
 // This allows @Transactional annotations to work properly
 @EnableTransactionManagement
+// @EnableScheduling turns on @Scheduled methods (e.g. periodic user count reconciliation)
+@EnableScheduling
 public class UserManagementApiApplication {
 
     /**
@@ -0,0 +1,173 @@
+package com.example.userapi.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cap on concurrent API requests that adapts to database latency
+ *
+ * Every window, the mean repository call latency (from the users.repository.calls
+ * timers) is compared with its long-term average. While the database keeps up, the
+ * limit grows by about sqrt(limit) per window; once latency rises above
+ * tolerance x the long-term average, requests are queueing in the database and the
+ * limit shrinks in proportion (gradient algorithm, as in Netflix concurrency-limits).
+ * Requests over the limit are rejected at once instead of waiting for a connection.
+ *
+ * Needs app.metrics.repository.enabled; without those timers the limit stays at
+ * initial-limit. Windows with fewer than min-samples calls leave the limit unchanged.
+ *
+ * Meters: users.admission.concurrency.limit, users.admission.concurrency.in-flight,
+ * users.admission.concurrency.db-latency{window=short|long}
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // Windows averaged into the long-term latency
+    private static final int LONG_WINDOWS = 20;
+
+    // Share of the newly computed limit applied per window
+    private static final double SMOOTHING = 0.2;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final long minSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Highest in-flight count seen during the current window
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Written only by the scheduler thread; the latencies are volatile for the gauges
+    private double estimatedLimit;
+
+    private volatile double shortLatency;
+
+    private volatile double longLatency;
+
+    private long lastCount;
+
+    private double lastTotalNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${app.admission.concurrency.initial-limit:100}") int initialLimit,
+                                      @Value("${app.admission.concurrency.min-limit:10}") int minLimit,
+                                      @Value("${app.admission.concurrency.max-limit:500}") int maxLimit,
+                                      @Value("${app.admission.concurrency.tolerance:1.5}") double tolerance,
+                                      @Value("${app.admission.concurrency.min-samples:10}") long minSamples) {
+        this.meterRegistry = meterRegistry;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.minSamples = minSamples;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        Gauge.builder("users.admission.concurrency.limit", this, l -> l.limit)
+                .description("Current adaptive limit on concurrent API requests")
+                .register(meterRegistry);
+        Gauge.builder("users.admission.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("API requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("users.admission.concurrency.db-latency", this, l -> l.shortLatency / 1_000_000_000d)
+                .description("Mean repository call latency in the last window")
+                .tag("window", "short")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("users.admission.concurrency.db-latency", this, l -> l.longLatency / 1_000_000_000d)
+                .description("Long-term average repository call latency the limit is judged against")
+                .tag("window", "long")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if a permit was taken; the caller must then call release()
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Recompute the limit from the repository latency observed since the last window
+     */
+    @Scheduled(fixedDelayString = "${app.admission.concurrency.window:1000}")
+    public void adjust() {
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find("users.repository.calls").tag("outcome", "success").timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long samples = count - lastCount;
+        double sampleNanos = totalNanos - lastTotalNanos;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (samples < minSamples) {
+            return;
+        }
+
+        shortLatency = sampleNanos / samples;
+        if (longLatency == 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOWS;
+            // After a load spike, pull the baseline back down quickly once latency recovers
+            if (longLatency > 2 * shortLatency) {
+                longLatency *= 0.95;
+            }
+        }
+
+        // 1.0 while latency is within tolerance, down to 0.5 as it climbs above
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Do not grow a limit the traffic is not even reaching
+        if (target > estimatedLimit && peak < estimatedLimit / 2) {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        int previous = limit;
+        limit = (int) estimatedLimit;
+        if (limit < previous) {
+            log.debug("Concurrency limit lowered to {} (repository latency {} ms, baseline {} ms)",
+                    limit, shortLatency / 1_000_000, longLatency / 1_000_000);
+        }
+    }
+}
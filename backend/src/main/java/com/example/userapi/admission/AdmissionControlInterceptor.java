@@ -0,0 +1,183 @@
+package com.example.userapi.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of UserController
+ *
+ * Each request first pays its cost from the calling client's token bucket (ClientQuotas),
+ * then takes a permit from the adaptive concurrency limit. Either check failing answers
+ * immediately with an empty body, before the controller or the database is touched:
+ * - 429 Too Many Requests when the client is over its quota; Retry-After is the time
+ *   until its bucket holds enough tokens for this request
+ * - 503 Service Unavailable when the service is at its concurrency limit
+ *
+ * Costs reflect how much database work a request causes: a page, search or multi-get
+ * costs more than a lookup by ID, and exports, imports and batches most.
+ * The change stream (SSE) is charged on connect but holds no concurrency permit,
+ * since it stays open for minutes and reads nothing from the database.
+ *
+ * Clients are keyed by the client-header value when one is configured and present
+ * (set it only behind a gateway that authenticates the header), else by remote address.
+ *
+ * Meter: users.admission.rejected (tags: method, uri, reason=quota|overload)
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    // Set while the request holds a concurrency permit; survives async dispatch
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private static final String STREAM_PATTERN = "/api/users/stream";
+
+    private final ClientQuotas quotas;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String clientHeader;
+
+    private final String overloadRetryAfter;
+
+    private final int singleCost;
+
+    private final int writeCost;
+
+    private final int listCost;
+
+    private final int searchCost;
+
+    private final int bulkCost;
+
+    // "reason method uri" -> rejection counter
+    private final ConcurrentMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(ClientQuotas quotas,
+                                       AdaptiveConcurrencyLimiter limiter,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.admission.client-header:}") String clientHeader,
+                                       @Value("${app.admission.concurrency.retry-after:1s}") Duration overloadRetryAfter,
+                                       @Value("${app.admission.cost.single:1}") int singleCost,
+                                       @Value("${app.admission.cost.write:2}") int writeCost,
+                                       @Value("${app.admission.cost.list:10}") int listCost,
+                                       @Value("${app.admission.cost.search:10}") int searchCost,
+                                       @Value("${app.admission.cost.bulk:100}") int bulkCost) {
+        this.quotas = quotas;
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+        this.clientHeader = clientHeader;
+        this.overloadRetryAfter = String.valueOf(Math.max(1, overloadRetryAfter.getSeconds()));
+        this.singleCost = singleCost;
+        this.writeCost = writeCost;
+        this.listCost = listCost;
+        this.searchCost = searchCost;
+        this.bulkCost = bulkCost;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that completes a streaming response was admitted on its first dispatch;
+        // CORS preflights never reach the controller
+        if (request.getDispatcherType() == DispatcherType.ASYNC || CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        Object matched = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String pattern = matched != null ? matched.toString() : "UNKNOWN";
+
+        long waitNanos = quotas.tryAcquire(clientKey(request), cost(request, pattern));
+        if (waitNanos > 0) {
+            reject(request, response, pattern, HttpStatus.TOO_MANY_REQUESTS, "quota",
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+            return false;
+        }
+
+        if (STREAM_PATTERN.equals(pattern)) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(request, response, pattern, HttpStatus.SERVICE_UNAVAILABLE, "overload", overloadRetryAfter);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    // Runs once per request: on its only dispatch, or, for streaming responses, on the async dispatch
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            limiter.release();
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (StringUtils.hasText(clientHeader)) {
+            String client = request.getHeader(clientHeader);
+            if (StringUtils.hasText(client)) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Tokens charged for one request, by how much database work it can cause
+    private int cost(HttpServletRequest request, String pattern) {
+        String method = request.getMethod();
+        switch (pattern) {
+            case "/api/users":
+                if (!"GET".equals(method)) {
+                    return writeCost;
+                }
+                // The full-table NDJSON stream vs one keyset page or multi-get
+                return "true".equals(request.getParameter("stream")) ? bulkCost : listCost;
+            case "/api/users/{id}":
+                return "GET".equals(method) ? singleCost : writeCost;
+            case "/api/users/search":
+            case "/api/users/query":
+                return searchCost;
+            case "/api/users/lookup":
+            case "/api/users/changes":
+                return listCost;
+            case "/api/users/batch":
+            case "/api/users/import":
+            case "/api/users/export":
+                return bulkCost;
+            default:
+                return singleCost;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String pattern,
+                        HttpStatus status, String reason, String retryAfterSeconds) {
+        String method = request.getMethod();
+        rejections.computeIfAbsent(reason + " " + method + " " + pattern, key -> Counter.builder("users.admission.rejected")
+                .description("Requests refused by admission control before reaching the controller")
+                .tag("method", method)
+                .tag("uri", pattern)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userapi.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * One token bucket per client, created on first request
+ *
+ * Buckets live in a bounded Caffeine cache: lookups do not lock, and a client idle for
+ * longer than it takes its bucket to refill is evicted (a new bucket starts full, so
+ * nothing is lost). max-clients bounds memory if client keys are spoofed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class ClientQuotas {
+
+    private final double ratePerSecond;
+
+    private final int burst;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public ClientQuotas(@Value("${app.admission.quota.rate:100}") double ratePerSecond,
+                        @Value("${app.admission.quota.burst:200}") int burst,
+                        @Value("${app.admission.quota.max-clients:100000}") long maxClients) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        // Time for an empty bucket to fill up again; after that, a fresh bucket is equivalent
+        Duration refill = Duration.ofNanos((long) (burst / ratePerSecond * 1_000_000_000L));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(refill.plusSeconds(1))
+                .build();
+    }
+
+    /**
+     * Charge {@code cost} tokens to {@code client}
+     * @return 0 if admitted, otherwise the nanoseconds until the client may retry this request
+     */
+    public long tryAcquire(String client, int cost) {
+        return buckets.get(client, key -> new TokenBucket(ratePerSecond, burst)).tryAcquire(cost, System.nanoTime());
+    }
+}
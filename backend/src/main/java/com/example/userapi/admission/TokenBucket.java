@@ -0,0 +1,54 @@
+package com.example.userapi.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for one client
+ *
+ * Implemented as GCRA (generic cell rate algorithm): instead of a token count and a
+ * refill timestamp, the whole state is one "theoretical arrival time" in a single
+ * AtomicLong, updated with compare-and-set. Taking n tokens pushes it n emission
+ * intervals into the future; a request is admitted while that stays within the burst
+ * allowance of now. This is equivalent to a bucket of {@code burst} tokens refilled at
+ * {@code ratePerSecond}, and needs no lock and no background refill.
+ */
+final class TokenBucket {
+
+    // Nanoseconds to earn one token
+    private final long emissionInterval;
+
+    // How far the arrival time may run ahead of now: the bucket capacity, in nanoseconds
+    private final long burstTolerance;
+
+    private final int burst;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.emissionInterval = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burst = burst;
+        this.burstTolerance = emissionInterval * burst;
+    }
+
+    /**
+     * Take {@code cost} tokens if available
+     * @param cost Tokens to take; capped at the burst size so an expensive request is never refused forever
+     * @param now Current System.nanoTime()
+     * @return 0 if admitted, otherwise the nanoseconds until enough tokens will be available
+     */
+    long tryAcquire(int cost, long now) {
+        long increment = emissionInterval * Math.min(cost, burst);
+        while (true) {
+            long current = theoreticalArrival.get();
+            // An idle bucket is full: start from now, not from a time in the past
+            long next = Math.max(current, now) + increment;
+            long wait = next - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.userapi.bulk;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by POST /api/users/import and produced by GET /api/users/export
+ */
+public enum BulkFormat {
+
+    // RFC 4180: header row, comma-separated, fields quoted when they contain , " or line breaks
+    CSV("text/csv", "csv"),
+
+    // One JSON user object per line
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    BulkFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param contentType Content-Type of an import request (parameters such as charset are ignored)
+     * @throws IllegalArgumentException if the type is neither CSV nor NDJSON
+     */
+    public static BulkFormat fromContentType(MediaType contentType) {
+        for (BulkFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+    /**
+     * @param name "csv" or "ndjson", case-insensitive
+     * @throws IllegalArgumentException for any other name
+     */
+    public static BulkFormat fromName(String name) {
+        for (BulkFormat format : values()) {
+            if (format.extension.equals(name.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + name);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.entity.User;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads users from RFC 4180 CSV with a header row
+ *
+ * Columns are matched by header name, case-insensitively and ignoring underscores
+ * (createdAt and created_at both work). name and email are required; phone and
+ * createdAt are optional; any other column (id, updatedAt, version from an export)
+ * is ignored, so an export can be imported as-is.
+ *
+ * The reader keeps one record in memory. Quoted fields may contain commas, doubled
+ * quotes and line breaks.
+ */
+public class CsvUserRowReader implements UserRowReader {
+
+    // No column is longer than 150 characters; a field this long means an unbalanced quote
+    // is swallowing the rest of the file, so stop instead of buffering it
+    private static final int MAX_FIELD_LENGTH = 4096;
+
+    private static final int EOF = 0;
+
+    private static final int RECORD = 1;
+
+    private static final int UNTERMINATED = 2;
+
+    private final Reader in;
+
+    // Own buffer instead of BufferedReader, whose read() takes a lock per character
+    private final char[] buffer = new char[64 * 1024];
+
+    private int position;
+
+    private int limit;
+
+    // Line the next record starts on
+    private long line = 1;
+
+    // Fields of the record being read; reused across records
+    private final List<String> fields = new ArrayList<>();
+
+    private final StringBuilder field = new StringBuilder();
+
+    private final int columns;
+
+    private final int nameIndex;
+
+    private final int emailIndex;
+
+    private final int phoneIndex;
+
+    private final int createdAtIndex;
+
+    /**
+     * @throws IllegalArgumentException if the header row is missing or lacks name/email
+     */
+    public CsvUserRowReader(Reader in) throws IOException {
+        this.in = in;
+        if (readRecord() != RECORD) {
+            throw new IllegalArgumentException("CSV import needs a header row");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String column = fields.get(i);
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                // Byte order mark written by spreadsheet exports
+                column = column.substring(1);
+            }
+            header.putIfAbsent(column.trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        this.columns = fields.size();
+        this.nameIndex = header.getOrDefault("name", -1);
+        this.emailIndex = header.getOrDefault("email", -1);
+        this.phoneIndex = header.getOrDefault("phone", -1);
+        this.createdAtIndex = header.getOrDefault("createdat", -1);
+        if (nameIndex < 0 || emailIndex < 0) {
+            throw new IllegalArgumentException("CSV header must contain name and email columns");
+        }
+    }
+
+    @Override
+    public Row next() throws IOException {
+        while (true) {
+            long start = line;
+            int status = readRecord();
+            if (status == EOF) {
+                return null;
+            }
+            if (status == UNTERMINATED) {
+                return Row.invalid(start, "quoted field is not closed before the end of the input");
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                // Blank line
+                continue;
+            }
+            if (fields.size() != columns) {
+                return Row.invalid(start, "expected " + columns + " fields but found " + fields.size());
+            }
+            return toRow(start);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Row toRow(long start) {
+        User user = new User(fields.get(nameIndex), fields.get(emailIndex), optional(phoneIndex));
+        String createdAt = optional(createdAtIndex);
+        if (createdAt != null) {
+            try {
+                user.setCreatedAt(LocalDateTime.parse(createdAt));
+            } catch (DateTimeParseException e) {
+                return Row.invalid(start, "createdAt must be an ISO-8601 date-time such as 2024-01-31T09:30:00");
+            }
+        }
+        return Row.valid(start, user);
+    }
+
+    // Optional columns: absent or empty both mean null
+    private String optional(int index) {
+        if (index < 0 || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    // Parse one record into fields; a record ends at an unquoted line break or the end of input
+    private int readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean started = false;
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                if (!started) {
+                    return EOF;
+                }
+                if (quoted) {
+                    return UNTERMINATED;
+                }
+                fields.add(field.toString());
+                return RECORD;
+            }
+            started = true;
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        // "" inside a quoted field is a literal quote
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return RECORD;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IOException("CSV field starting near line " + line + " is longer than "
+                        + MAX_FIELD_LENGTH + " characters; check for an unbalanced quote");
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads users from newline-delimited JSON, one object per line
+ *
+ * Each line is parsed on its own, so a malformed line is reported and skipped without
+ * losing the lines after it. Fields are the same as the User JSON everywhere else in
+ * the API; id, updatedAt and version are ignored on import.
+ */
+public class NdjsonUserRowReader implements UserRowReader {
+
+    private final BufferedReader in;
+
+    // ObjectReader is immutable and reuses the deserializer resolved on first use
+    private final ObjectReader reader;
+
+    private long line;
+
+    public NdjsonUserRowReader(Reader in, ObjectMapper objectMapper) {
+        this.in = new BufferedReader(in, 64 * 1024);
+        this.reader = objectMapper.readerFor(User.class);
+    }
+
+    @Override
+    public Row next() throws IOException {
+        String text;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                User user = reader.readValue(text);
+                if (user == null) {
+                    return Row.invalid(line, "row is empty");
+                }
+                return Row.valid(line, user);
+            } catch (JsonProcessingException e) {
+                // getOriginalMessage omits the location, which would only repeat the line number
+                return Row.invalid(line, "malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
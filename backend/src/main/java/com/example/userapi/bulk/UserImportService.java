@@ -0,0 +1,286 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.bulk.UserRowReader.Row;
+import com.example.userapi.dto.BatchItemResult.Status;
+import com.example.userapi.dto.ImportSummary;
+import com.example.userapi.entity.User;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.repository.UserBulkRepository;
+import com.example.userapi.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming import behind POST /api/users/import
+ *
+ * The body is parsed one row at a time and validated against the Bean Validation
+ * constraints on User. Valid rows are buffered into chunks; each chunk runs in its own
+ * transaction and costs one duplicate-email query, a few USER_SEQ round trips and one
+ * JDBC batch of INSERTs. Memory use is one chunk, however large the file.
+ *
+ * Rows already committed stay committed if a later chunk fails: an import is a series
+ * of chunk transactions, not one transaction. Re-running the same file is safe, since
+ * rows that made it in the first time are reported as conflicts the second time.
+ *
+ * Every imported row publishes a UserChangeEvent, so the cache, search index, counter
+ * and change stream see imports like any other create.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserBulkRepository bulkRepository;
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final int chunkSize;
+
+    private final int maxReportedErrors;
+
+    private final long progressInterval;
+
+    private final Counter importedRows;
+
+    private final Counter rejectedRows;
+
+    private final Timer chunkTimer;
+
+    public UserImportService(UserBulkRepository bulkRepository,
+                             UserRepository userRepository,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${app.users.import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${app.users.import.progress-interval:100000}") long progressInterval) {
+        this.bulkRepository = bulkRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, UserRepository.MAX_IN_LIST_SIZE));
+        this.maxReportedErrors = maxReportedErrors;
+        this.progressInterval = Math.max(1, progressInterval);
+        this.importedRows = Counter.builder("users.import.rows")
+                .description("Rows processed by POST /api/users/import")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("users.import.rows")
+                .description("Rows processed by POST /api/users/import")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("users.import.chunk")
+                .description("Time to check and insert one import chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Import every row of the body
+     * @param body Request body; read to the end but not closed
+     * @param format CSV or NDJSON
+     * @return Counts, the first rejected rows, and whether the input was cut short
+     * @throws IllegalArgumentException if a CSV body has no usable header (nothing is imported)
+     */
+    public ImportSummary importUsers(InputStream body, BulkFormat format) throws IOException {
+        Progress progress = new Progress();
+        Reader text = new InputStreamReader(body, StandardCharsets.UTF_8);
+        UserRowReader reader = format == BulkFormat.CSV
+                ? new CsvUserRowReader(text)
+                : new NdjsonUserRowReader(text, objectMapper);
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        Set<String> chunkEmails = new HashSet<>();
+        String abortedReason = null;
+        try {
+            Row row;
+            while ((row = reader.next()) != null) {
+                progress.received++;
+                String violation = row.getError() != null ? row.getError() : validate(row.getUser());
+                if (violation != null) {
+                    progress.reject(row.getLine(), Status.INVALID, violation);
+                } else if (!chunkEmails.add(row.getUser().getEmail())) {
+                    progress.reject(row.getLine(), Status.CONFLICT,
+                            "Email " + row.getUser().getEmail() + " appears more than once in the input");
+                } else {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(chunk, progress);
+                        chunk.clear();
+                        chunkEmails.clear();
+                    }
+                }
+                if (progress.received % progressInterval == 0) {
+                    log.info("Import in progress: {} rows read, {} imported, {} rejected, {} rows/s",
+                            progress.received, progress.imported, progress.rejected, progress.rowsPerSecond());
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable input (client went away, runaway quoted field): keep what was read so far
+            abortedReason = e.getMessage();
+            log.warn("Import stopped after {} rows: {}", progress.received, e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, progress);
+        }
+
+        long elapsedMillis = progress.elapsedMillis();
+        log.info("Imported {} of {} rows ({} rejected) in {} ms",
+                progress.imported, progress.received, progress.rejected, elapsedMillis);
+        return new ImportSummary(progress.received, progress.imported, progress.rejected, elapsedMillis,
+                progress.errors, progress.rejected > progress.errors.size(), abortedReason);
+    }
+
+    private void writeChunk(List<Row> rows, Progress progress) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<Row> conflicts = transactionTemplate.execute(status -> {
+                // One set-based duplicate check for the whole chunk
+                Set<String> emails = rows.stream().map(row -> row.getUser().getEmail()).collect(Collectors.toSet());
+                Set<String> taken = new HashSet<>(userRepository.findExistingEmails(emails));
+
+                List<Row> existing = new ArrayList<>();
+                List<User> users = new ArrayList<>(rows.size());
+                for (Row row : rows) {
+                    if (taken.contains(row.getUser().getEmail())) {
+                        existing.add(row);
+                    } else {
+                        users.add(prepare(row.getUser(), now));
+                    }
+                }
+                if (!users.isEmpty()) {
+                    bulkRepository.insertAll(users);
+                }
+                for (User user : users) {
+                    eventPublisher.publishEvent(UserChangeEvent.created(user));
+                }
+                return existing;
+            });
+            for (Row row : conflicts) {
+                progress.reject(row.getLine(), Status.CONFLICT,
+                        "User with email " + row.getUser().getEmail() + " already exists");
+            }
+            progress.imported(rows.size() - conflicts.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took an email between our check and the insert
+            log.debug("Import chunk hit a constraint violation, retrying {} rows one by one", rows.size(), e);
+            for (Row row : rows) {
+                writeOne(row, now, progress);
+            }
+        }
+        chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // Fallback: one transaction per row, so only the offending rows fail
+    private void writeOne(Row row, LocalDateTime now, Progress progress) {
+        User user = prepare(row.getUser(), now);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkRepository.insertAll(Collections.singletonList(user));
+                eventPublisher.publishEvent(UserChangeEvent.created(user));
+            });
+            progress.imported(1);
+        } catch (DuplicateKeyException e) {
+            progress.reject(row.getLine(), Status.CONFLICT, "User with email " + user.getEmail() + " already exists");
+        } catch (DataAccessException e) {
+            progress.reject(row.getLine(), Status.FAILED, e.getMessage());
+        }
+    }
+
+    // Timestamps are set here because @PrePersist does not run for JDBC inserts; an
+    // imported createdAt (e.g. from an export) is kept
+    private static User prepare(User user, LocalDateTime now) {
+        if (user.getCreatedAt() == null) {
+            user.setCreatedAt(now);
+        }
+        user.setUpdatedAt(now);
+        return user;
+    }
+
+    // Bean Validation against the constraints declared on User; null when the row is valid
+    private String validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // Running totals for one import; confined to the request thread
+    private final class Progress {
+
+        final long startNanos = System.nanoTime();
+
+        final List<ImportSummary.RowError> errors = new ArrayList<>();
+
+        long received;
+
+        long imported;
+
+        long rejected;
+
+        void imported(int rows) {
+            imported += rows;
+            importedRows.increment(rows);
+        }
+
+        void reject(long line, Status status, String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportSummary.RowError(line, status, message));
+            }
+        }
+
+        long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        long rowsPerSecond() {
+            long millis = elapsedMillis();
+            return millis == 0 ? received : received * 1000 / millis;
+        }
+    }
+}
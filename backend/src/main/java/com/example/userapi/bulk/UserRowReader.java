@@ -0,0 +1,62 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.entity.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull parser over an import body: one row per call, so memory does not grow with the file
+ *
+ * A row that cannot be turned into a User is returned as an invalid Row rather than
+ * thrown, so one bad line does not abort the import. Only unreadable input (I/O
+ * errors, a missing CSV header) is thrown.
+ */
+public interface UserRowReader extends Closeable {
+
+    /**
+     * @return the next row, or null at the end of the input
+     */
+    Row next() throws IOException;
+
+    /**
+     * One parsed row: either a User or the reason it could not be parsed
+     */
+    final class Row {
+
+        // 1-based line of the input the row starts on
+        private final long line;
+
+        private final User user;
+
+        private final String error;
+
+        private Row(long line, User user, String error) {
+            this.line = line;
+            this.user = user;
+            this.error = error;
+        }
+
+        public static Row valid(long line, User user) {
+            return new Row(line, user, null);
+        }
+
+        public static Row invalid(long line, String error) {
+            return new Row(line, null, error);
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        // Null for an invalid row
+        public User getUser() {
+            return user;
+        }
+
+        // Null for a valid row
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.userapi.cache;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time; callers asking for a key that is already
+ * loading wait for that load and share its result (or its exception)
+ *
+ * The first caller (the leader) runs the loader on its own thread; no extra threads
+ * are involved. Results are shared, so callers must treat them as read-only.
+ *
+ * @param <K> Key type; needs equals/hashCode
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+
+    // Loads in progress; an entry lives from the leader's start until it finishes or is forgotten
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+
+    private final Counter coalesced;
+
+    public SingleFlight(Counter executed, Counter coalesced) {
+        this.executed = executed;
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * Load the key, or join a load of it that is already in flight
+     * @param key What is being loaded
+     * @param loader Called by the leader only
+     * @return The loader's result
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only remove our own entry: forget() may already have let a newer load in
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Stop new callers from joining the load in flight for this key
+     * Callers already waiting still get its result; later callers start a fresh load
+     */
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    /**
+     * {@link #forget} every key
+     */
+    public void forgetAll() {
+        calls.clear();
+    }
+
+    /**
+     * @return number of keys currently loading
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    // Wait for another caller's load, rethrowing its failure as-is
+    static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.event.UserChangeEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for user lookups by ID and by email
+ *
+ * Users are stored once, keyed by ID. The email cache only maps email -> ID and
+ * every hit is verified against the cached user's current email, so an email
+ * change can never return the wrong user even if the old mapping lingers.
+ *
+ * Entries are invalidated from UserChangeEvent after the writing transaction
+ * commits. Lookups that raced with a write are not cached (see invalidationEpoch).
+ */
+@Component
+public class UserCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCache.class);
+
+    private final boolean enabled;
+
+    // ID -> user
+    private final Cache<Long, User> usersById;
+
+    // Email -> ID, verified on every hit
+    private final Cache<String, Long> idsByEmail;
+
+    // Bumped on every invalidation; a load that started before a bump
+    // may have read pre-commit data, so its result is not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    public UserCache(@Value("${app.cache.users.enabled:true}") boolean enabled,
+                     @Value("${app.cache.users.max-size:10000}") long maxSize,
+                     @Value("${app.cache.users.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Exposes cache.gets (hit/miss), cache.evictions and cache.size under /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+
+        log.info("User cache {} (maxSize={}, ttl={})", enabled ? "enabled" : "disabled", maxSize, ttl);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Look a user up by ID, falling back to the loader on a miss
+     * @param id The user's ID
+     * @param loader Database lookup used on a cache miss
+     * @return The user, if it exists
+     */
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long epoch = invalidationEpoch.get();
+        Optional<User> loaded = loader.apply(id);
+        loaded.ifPresent(user -> putIfCurrent(user, epoch));
+        return loaded;
+    }
+
+    /**
+     * Look many users up by ID, loading only the ones not cached
+     * @param ids Distinct IDs
+     * @param loader Database lookup for the cache misses; called at most once
+     * @return The users that exist, keyed by ID (in no particular order)
+     */
+    public Map<Long, User> getAllById(Collection<Long> ids, Function<List<Long>, List<User>> loader) {
+        Map<Long, User> found = new HashMap<>();
+        List<Long> misses;
+        if (enabled) {
+            found.putAll(usersById.getAllPresent(ids));
+            misses = new ArrayList<>(ids.size() - found.size());
+            for (Long id : ids) {
+                if (!found.containsKey(id)) {
+                    misses.add(id);
+                }
+            }
+        } else {
+            misses = new ArrayList<>(ids);
+        }
+        if (misses.isEmpty()) {
+            return found;
+        }
+
+        long epoch = invalidationEpoch.get();
+        for (User user : loader.apply(misses)) {
+            found.put(user.getId(), user);
+            if (enabled) {
+                putIfCurrent(user, epoch);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Look a user up by email, falling back to the loaders on a miss
+     * @param email The user's email address
+     * @param emailLoader Database lookup by email used on a cache miss
+     * @param idLoader Database lookup by ID used when the email mapping is cached but the user is not
+     * @return The user, if it exists
+     */
+    public Optional<User> getByEmail(String email,
+                                     Function<String, Optional<User>> emailLoader,
+                                     Function<Long, Optional<User>> idLoader) {
+        if (!enabled) {
+            return emailLoader.apply(email);
+        }
+
+        Long cachedId = idsByEmail.getIfPresent(email);
+        if (cachedId != null) {
+            Optional<User> user = getById(cachedId, idLoader);
+            if (user.isPresent() && email.equals(user.get().getEmail())) {
+                return user;
+            }
+            // The mapping is stale (email changed or user deleted)
+            idsByEmail.invalidate(email);
+        }
+
+        long epoch = invalidationEpoch.get();
+        Optional<User> loaded = emailLoader.apply(email);
+        loaded.ifPresent(user -> putIfCurrent(user, epoch));
+        return loaded;
+    }
+
+    /**
+     * Drop everything cached for a user once its write has committed
+     * Rolled-back transactions never publish the event, so they cannot poison the cache
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        invalidationEpoch.incrementAndGet();
+        usersById.invalidate(event.getUserId());
+        if (event.getUser() != null) {
+            idsByEmail.invalidate(event.getUser().getEmail());
+        }
+    }
+
+    // Cache a freshly loaded user unless an invalidation happened while it was loading
+    private void putIfCurrent(User user, long epochBeforeLoad) {
+        if (invalidationEpoch.get() != epochBeforeLoad) {
+            return;
+        }
+        usersById.put(user.getId(), user);
+        idsByEmail.put(user.getEmail(), user.getId());
+
+        // An invalidation may have slipped in between the check and the put
+        if (invalidationEpoch.get() != epochBeforeLoad) {
+            usersById.invalidate(user.getId());
+            idsByEmail.invalidate(user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects lookups by ID that arrive within a short window and reads them with one
+ * SELECT ... WHERE id IN (...)
+ *
+ * The first caller of a window is its leader: it waits for the window to pass (or
+ * the batch to fill), runs the query on its own thread and hands every waiting caller
+ * its row. Every lookup therefore pays up to one window of extra latency in exchange
+ * for fewer round trips, which only pays off under heavy, mostly distinct ID traffic.
+ *
+ * A ReentrantLock rather than synchronized, so virtual threads are never pinned.
+ */
+class UserIdBatchLoader {
+
+    private final UserRepository userRepository;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final DistributionSummary batchSizes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Batch still accepting IDs; guarded by lock
+    private Batch open;
+
+    UserIdBatchLoader(UserRepository userRepository, Duration window, int maxBatchSize, DistributionSummary batchSizes) {
+        this.userRepository = userRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, Math.min(maxBatchSize, UserRepository.MAX_IN_LIST_SIZE));
+        this.batchSizes = batchSizes;
+    }
+
+    /**
+     * Look a user up by ID as part of the current batch
+     */
+    Optional<User> load(Long id) {
+        Batch batch;
+        boolean leader = false;
+        CompletableFuture<Optional<User>> result;
+        lock.lock();
+        try {
+            if (open == null) {
+                open = new Batch();
+                leader = true;
+            }
+            batch = open;
+            result = batch.calls.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.calls.size() >= maxBatchSize) {
+                // Full: close it and wake the leader early
+                open = null;
+                batch.full.countDown();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            lock.lock();
+            try {
+                if (open == batch) {
+                    open = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // The batch is closed, so calls is no longer modified
+            execute(batch);
+        }
+        return SingleFlight.await(result);
+    }
+
+    private void awaitWindow(Batch batch) {
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Run the batch now rather than leave the other callers waiting
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Batch batch) {
+        batchSizes.record(batch.calls.size());
+        try {
+            // Executes: SELECT * FROM users WHERE id IN (?, ?, ...)
+            Map<Long, User> found = new HashMap<>();
+            for (User user : userRepository.findAllById(new ArrayList<>(batch.calls.keySet()))) {
+                found.put(user.getId(), user);
+            }
+            batch.calls.forEach((id, call) -> call.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException | Error e) {
+            // Every caller in the batch, including the leader, sees the failure
+            batch.calls.values().forEach(call -> call.completeExceptionally(e));
+        }
+    }
+
+    private static final class Batch {
+
+        // ID -> callers' shared result, in arrival order
+        final Map<Long, CompletableFuture<Optional<User>>> calls = new LinkedHashMap<>();
+
+        // Released when the batch fills before the window ends
+        final CountDownLatch full = new CountDownLatch(1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Request coalescing for the database reads behind UserCache misses and the search fallback
+ *
+ * When many requests ask for the same user (or the same search) at once and the cache
+ * cannot answer, they share one in-flight query instead of each running its own (see
+ * SingleFlight). Optionally, lookups by distinct IDs are micro-batched into one IN query
+ * (see UserIdBatchLoader).
+ *
+ * A shared query that started before a write committed must not be handed to a request
+ * that arrives after it. After every committed change the affected flights are therefore
+ * forgotten, so a client that reads its own write always starts a fresh query.
+ *
+ * Meters: users.coalescing.calls (tags: operation, result=executed|coalesced),
+ * users.coalescing.in-flight, and users.coalescing.batch.size when batching is on.
+ */
+@Component
+public class UserReadCoalescer {
+
+    private final UserRepository userRepository;
+
+    private final boolean enabled;
+
+    private final SingleFlight<Long, Optional<User>> byId;
+
+    private final SingleFlight<String, Optional<User>> byEmail;
+
+    private final SingleFlight<SearchKey, List<User>> byName;
+
+    // Null unless app.users.coalescing.batch-window is positive
+    private final UserIdBatchLoader idBatchLoader;
+
+    public UserReadCoalescer(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.users.coalescing.enabled:true}") boolean enabled,
+                             @Value("${app.users.coalescing.batch-window:0ms}") Duration batchWindow,
+                             @Value("${app.users.coalescing.batch-max-size:100}") int batchMaxSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.byId = flight("byId", meterRegistry);
+        this.byEmail = flight("byEmail", meterRegistry);
+        this.byName = flight("search", meterRegistry);
+        Gauge.builder("users.coalescing.in-flight", this, c -> c.byId.inFlight() + c.byEmail.inFlight() + c.byName.inFlight())
+                .description("Distinct reads currently being loaded")
+                .register(meterRegistry);
+
+        if (enabled && !batchWindow.isZero() && !batchWindow.isNegative()) {
+            DistributionSummary batchSizes = DistributionSummary.builder("users.coalescing.batch.size")
+                    .description("IDs read per batched WHERE id IN (...) query")
+                    .register(meterRegistry);
+            this.idBatchLoader = new UserIdBatchLoader(userRepository, batchWindow, batchMaxSize, batchSizes);
+        } else {
+            this.idBatchLoader = null;
+        }
+    }
+
+    /**
+     * Executes (once per concurrent group): SELECT * FROM users WHERE id = ?
+     * or, with batching on, a share of SELECT * FROM users WHERE id IN (...)
+     */
+    public Optional<User> findById(Long id) {
+        if (!enabled) {
+            return userRepository.findById(id);
+        }
+        return byId.execute(id, () -> idBatchLoader != null ? idBatchLoader.load(id) : userRepository.findById(id));
+    }
+
+    /**
+     * Executes (once per concurrent group): SELECT * FROM users WHERE email = ?
+     */
+    public Optional<User> findByEmail(String email) {
+        if (!enabled) {
+            return userRepository.findByEmail(email);
+        }
+        return byEmail.execute(email, () -> userRepository.findByEmail(email));
+    }
+
+    /**
+     * Executes (once per concurrent group): SELECT * FROM users WHERE UPPER(name) LIKE UPPER('%?%') FETCH FIRST ? ROWS ONLY
+     * The returned list is shared between the coalesced callers and must not be modified
+     */
+    public List<User> searchByName(String name, int limit) {
+        if (!enabled) {
+            return userRepository.findByNameContainingIgnoreCase(name, PageRequest.of(0, limit));
+        }
+        return byName.execute(new SearchKey(name, limit),
+                () -> userRepository.findByNameContainingIgnoreCase(name, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Once a write has committed, later reads must not join queries that may predate it
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        byId.forget(event.getUserId());
+        // The event carries the new email only, and any search may match the changed row
+        byEmail.forgetAll();
+        byName.forgetAll();
+    }
+
+    private static <K, V> SingleFlight<K, V> flight(String operation, MeterRegistry meterRegistry) {
+        Counter executed = Counter.builder("users.coalescing.calls")
+                .description("Cache-missing reads, by whether they ran a query or joined one in flight")
+                .tags("operation", operation, "result", "executed")
+                .register(meterRegistry);
+        Counter coalesced = Counter.builder("users.coalescing.calls")
+                .description("Cache-missing reads, by whether they ran a query or joined one in flight")
+                .tags("operation", operation, "result", "coalesced")
+                .register(meterRegistry);
+        return new SingleFlight<>(executed, coalesced);
+    }
+
+    private record SearchKey(String name, int limit) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.userapi.config;
+
+import com.example.userapi.admission.AdmissionControlInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts per-client quotas and the adaptive concurrency limit in front of every
+ * /api/users endpoint (see AdmissionControlInterceptor)
+ *
+ * Actuator endpoints are not covered, so health probes and metrics scrapes still
+ * answer while the API is shedding load.
+ *
+ * Off by default; enable with app.admission.enabled=true. Behind a proxy or load
+ * balancer, also set app.admission.client-header, or every client shares one quota.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionControlConfig(AdmissionControlInterceptor admissionControlInterceptor) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/users", "/api/users/**");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.userapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Binary alternatives to JSON for service-to-service clients
+ *
+ * Any endpoint that returns or accepts JSON also speaks CBOR (application/cbor) and
+ * Smile (application/x-jackson-smile), chosen by the Accept and Content-Type headers.
+ * Both are binary encodings of the same Jackson data model, so payloads carry the same
+ * fields as JSON with no separate schema to maintain.
+ *
+ * The mappers come from Spring Boot's Jackson2ObjectMapperBuilder, so spring.jackson.*
+ * settings and modules (java.time) match the JSON converter. Spring Boot keeps these
+ * converters after the JSON one, so clients sending Accept: *&#47;* still get JSON.
+ *
+ * Since the body depends on Accept, /api responses carry Vary: Accept (304s included),
+ * and UserController gives each format its own ETag.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+
+    // The builder bean is prototype-scoped: each injection is a fresh, fully customized builder
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in a ConcurrencyLimitedDataSource
+ *
+ * The concurrency limit defaults to the Hikari pool size, so requests queue in the
+ * limiter (bounded, fail-fast) rather than inside the pool. Runs after HikariPoolSizer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConcurrencyLimiter.class);
+
+    private final int maxConcurrency;
+
+    private final int maxWaiting;
+
+    private final Duration acquireTimeout;
+
+    public DatabaseConcurrencyLimiter(@Value("${app.datasource.limiter.max-concurrency:0}") int maxConcurrency,
+                                      @Value("${app.datasource.limiter.max-waiting:1000}") int maxWaiting,
+                                      @Value("${app.datasource.limiter.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+            return bean;
+        }
+        int limit = maxConcurrency > 0 ? maxConcurrency : poolSize((DataSource) bean);
+        log.info("Limiting database concurrency on '{}' to {} connections, {} waiting", beanName, limit, maxWaiting);
+        return new ConcurrencyLimitedDataSource((DataSource) bean, limit, maxWaiting, acquireTimeout);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("Could not read the connection pool size", e);
+        }
+        // Hikari's default
+        return 10;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.userapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Meters for the database concurrency limiter:
+ * users.db.limiter.active, users.db.limiter.waiting, users.db.limiter.rejected
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+public class DatabaseLimiterMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    public DatabaseLimiterMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(dataSource instanceof ConcurrencyLimitedDataSource)) {
+            return;
+        }
+        ConcurrencyLimitedDataSource limited = (ConcurrencyLimitedDataSource) dataSource;
+        Gauge.builder("users.db.limiter.active", limited, ConcurrencyLimitedDataSource::getActive)
+                .description("Connections currently held through the limiter")
+                .register(registry);
+        Gauge.builder("users.db.limiter.waiting", limited, ConcurrencyLimitedDataSource::getWaiting)
+                .description("Callers queued for a connection permit")
+                .register(registry);
+        FunctionCounter.builder("users.db.limiter.rejected", limited, ConcurrencyLimitedDataSource::getRejected)
+                .description("Connection requests rejected because the queue was full or the wait timed out")
+                .register(registry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the number of cores instead of Hikari's fixed default of 10
+ *
+ * Uses the HikariCP sizing rule: connections = cores * connections-per-core + spindles.
+ * The cores that matter are the database server's; when it runs elsewhere, set
+ * app.datasource.pool.database-cores. Otherwise this host's core count is used, which
+ * is right for a local database container. The pool is kept at a fixed size
+ * (minimum-idle = maximum-pool-size) so bursts never wait for new connections.
+ *
+ * An explicit spring.datasource.hikari.maximum-pool-size always wins.
+ * Runs before DatabaseConcurrencyLimiter wraps the pool, so the limiter sees the final size.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.pool.size-from-cores", havingValue = "true")
+public class HikariPoolSizer implements BeanPostProcessor, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariPoolSizer.class);
+
+    private static final String EXPLICIT_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    private final Environment environment;
+
+    private final int databaseCores;
+
+    private final int connectionsPerCore;
+
+    private final int spindles;
+
+    public HikariPoolSizer(Environment environment,
+                           @Value("${app.datasource.pool.database-cores:0}") int databaseCores,
+                           @Value("${app.datasource.pool.connections-per-core:2}") int connectionsPerCore,
+                           @Value("${app.datasource.pool.spindles:1}") int spindles) {
+        this.environment = environment;
+        this.databaseCores = databaseCores;
+        this.connectionsPerCore = connectionsPerCore;
+        this.spindles = spindles;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Hikari opens no connections until first use, so the size can still be changed here
+        if (bean instanceof HikariDataSource && !environment.containsProperty(EXPLICIT_SIZE)) {
+            HikariDataSource dataSource = (HikariDataSource) bean;
+            int size = poolSize();
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+            log.info("Sized connection pool '{}' to {} connections", dataSource.getPoolName(), size);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    int poolSize() {
+        int cores = databaseCores > 0 ? databaseCores : Runtime.getRuntime().availableProcessors();
+        return Math.max(2, cores * connectionsPerCore + spindles);
+    }
+}
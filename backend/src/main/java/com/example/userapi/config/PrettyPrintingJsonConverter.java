@@ -0,0 +1,43 @@
+package com.example.userapi.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * JSON converter that writes compact JSON unless the request asks for ?pretty
+ *
+ * Registered as a bean, so Spring Boot uses it in place of its default Jackson converter
+ * (same ObjectMapper, same settings). ?pretty or ?pretty=true indents the response;
+ * anything else, including no parameter, stays compact.
+ */
+@Component
+public class PrettyPrintingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String PRETTY_PARAM = "pretty";
+
+    public PrettyPrintingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType, JavaType javaType) {
+        return prettyRequested() ? writer.withDefaultPrettyPrinter() : writer;
+    }
+
+    private static boolean prettyRequested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            // Not on a request thread (e.g. SSE sends from the broadcaster's sender pool)
+            return false;
+        }
+        String pretty = ((ServletRequestAttributes) attributes).getRequest().getParameter(PRETTY_PARAM);
+        return pretty != null && (pretty.isEmpty() || Boolean.parseBoolean(pretty));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.userapi.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Startup tuning for the "fast-startup" profile (spring.main.lazy-initialization=true)
+ *
+ * Lazy initialization would also postpone the entity manager factory until the first bean
+ * that needs a repository, and Hibernate would then bootstrap on that thread. Keeping it
+ * eager lets spring.data.jpa.repositories.bootstrap-mode=deferred do its job: Hibernate
+ * bootstraps on a background thread while the web server and the remaining beans start.
+ *
+ * Beans with @Scheduled methods are already kept eager by Spring Boot.
+ * Without lazy initialization this filter has no effect.
+ */
+@Configuration
+public class StartupConfig {
+
+    // Static: read by a BeanFactoryPostProcessor before regular beans exist
+    @Bean
+    public static LazyInitializationExcludeFilter eagerEntityManagerFactory() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+    }
+}
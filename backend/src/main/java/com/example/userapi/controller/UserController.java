@@ -1,73 +1,351 @@
 package com.example.userapi.controller;
 
+import com.example.userapi.bulk.BulkFormat;
+import com.example.userapi.bulk.UserExportService;
+import com.example.userapi.bulk.UserImportService;
+import com.example.userapi.dto.BatchResponse;
+import com.example.userapi.dto.ImportSummary;
+import com.example.userapi.dto.UserChanges;
+import com.example.userapi.dto.UserField;
+import com.example.userapi.dto.UserLookupResult;
+import com.example.userapi.dto.UserQuery;
+import com.example.userapi.dto.UserQueryResult;
 import com.example.userapi.entity.User;
+import com.example.userapi.event.UserEventBroadcaster;
+import com.example.userapi.exception.DuplicateEmailException;
+import com.example.userapi.exception.SyncTokenExpiredException;
+import com.example.userapi.exception.UserNotFoundException;
+import com.example.userapi.exception.VersionConflictException;
+import com.example.userapi.service.UserBatchService;
+import com.example.userapi.service.UserCollectionVersion;
+import com.example.userapi.service.UserQueryService;
 import com.example.userapi.service.UserService;
+import com.example.userapi.service.UserSyncService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 // @RestController combines @Controller and @ResponseBody
 // All methods return data directly (JSON) instead of view names
+// Methods map expected failures (not found, conflict, ...) to status codes themselves;
+// anything unexpected propagates to Spring Boot's error handling, which logs the stack
+// trace, answers 500, and tags the http.server.requests timer with the exception
 @RestController
 // @RequestMapping sets the base URL path for all endpoints in this controller
 @RequestMapping("/api/users")
 // @CrossOrigin enables CORS for React frontend running on different port
-@CrossOrigin(origins = "http://localhost:3000")
+// exposedHeaders lets the browser read the pagination cursor, ETag and Retry-After
+// (sent with admission control's 429/503) from JavaScript
+@CrossOrigin(origins = "http://localhost:3000",
+             exposedHeaders = {UserController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER})
 public class UserController {
     
+    // Response header carrying the "after" value for the next page (absent on the last page)
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    // Binary formats negotiated by BinaryFormatConfig, and their ETag suffixes
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    
+    private static final String CBOR_ETAG_SUFFIX = "-cbor";
+    
+    private static final String SMILE_ETAG_SUFFIX = "-smile";
+    
+    // Newline-delimited JSON: one user object per line, suitable for streaming
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
     // Inject the UserService to handle business logic
     @Autowired
     private UserService userService;
     
+    // Set-based create/update/delete for the /batch endpoints
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    // Delta sync for GET /api/users/changes
+    @Autowired
+    private UserSyncService userSyncService;
+    
+    // Filtered/sorted queries for GET /api/users/query
+    @Autowired
+    private UserQueryService userQueryService;
+    
+    // Streaming CSV/NDJSON import and export
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    // Server-Sent Events push of committed changes
+    @Autowired
+    private UserEventBroadcaster eventBroadcaster;
+    
+    // Collection-level ETag for list, search and count responses
+    @Autowired
+    private UserCollectionVersion collectionVersion;
+    
+    // Spring Boot's configured ObjectMapper, reused for the streaming endpoint
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Page size used when the client does not send ?limit=
+    @Value("${app.users.page.default-limit:100}")
+    private int defaultPageLimit;
+    
+    // Upper bound on ?limit= so a single request can never pull the whole table
+    @Value("${app.users.page.max-limit:1000}")
+    private int maxPageLimit;
+    
+    // Most changes one /changes call returns before asking the client to reload in full
+    @Value("${app.sync.max-changes:10000}")
+    private int maxSyncChanges;
+    
+    // Deepest ?offset= accepted by /query; beyond it clients must page with ?cursor=
+    @Value("${app.users.query.max-offset:10000}")
+    private int maxQueryOffset;
+    
+    // Upper bound on rows accepted by a single /batch request
+    @Value("${app.users.batch.max-rows:10000}")
+    private int maxBatchRows;
+    
+    // Upper bound on IDs resolved by one ?ids= or /lookup request
+    @Value("${app.users.lookup.max-ids:5000}")
+    private int maxLookupIds;
+    
     /**
-     * GET /api/users - Retrieve all users
+     * GET /api/users?after={id}&limit={n} - Retrieve one page of users
      * HTTP Method: GET
-     * Response: JSON array of user objects
+     * Response: JSON array of user objects ordered by ID
+     * When more rows exist, the X-Next-Cursor header holds the value to pass as ?after=
+     * Returns 304 Not Modified when If-None-Match matches the collection ETag
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(defaultValue = "0") long after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  WebRequest request) {
+        // Nothing changed since the client's copy: answer 304 without querying the database
+        // checkNotModified() sets the status and headers itself, so we just return null
+        String etag = representationEtag(collectionVersion.etag(), request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        // Clamp the requested page size into [1, maxPageLimit]
+        int pageSize = resolvePageLimit(limit);
+        
+        // Call service method to get one page of users
+        List<User> users = userService.getUsersAfter(after, pageSize);
+        
+        // A full page means there may be more rows; hand the client the cursor for the next one
+        // ResponseEntity allows us to control HTTP status codes and headers
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (users.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return response.body(users);
+    }
+    
+    /**
+     * GET /api/users?fields=id,name,email&after={id}&limit={n} - One page of users, selected properties only
+     * HTTP Method: GET
+     * Response: JSON array of objects holding just the requested properties (id is always included)
+     * Only those columns are read from the database, and no entities are created for the rows
+     * Paging, X-Next-Cursor and ETag behave as for GET /api/users
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getUserFields(@RequestParam(defaultValue = "0") long after,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam String fields,
+                                                                   WebRequest request) {
+        try {
+            // Validate the field list before anything else, so a typo is a 400 rather than a 304
+            Set<UserField> selected = UserField.parseList(fields);
+            
+            String etag = representationEtag(collectionVersion.etag(), request);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            
+            int pageSize = resolvePageLimit(limit);
+            List<Map<String, Object>> users = userService.getUserFieldsAfter(after, pageSize, selected);
+            
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache());
+            if (users.size() == pageSize) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).get("id")));
+            }
+            return response.body(users);
+            
+        } catch (IllegalArgumentException e) {
+            // Return HTTP 400 Bad Request for an unknown field name
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * GET /api/users?stream=true - Stream every user as newline-delimited JSON
+     * HTTP Method: GET
+     * Response: one compact JSON object per line, written straight from the database cursor
+     * Memory use is constant regardless of table size
+     */
+    @GetMapping(params = "stream=true", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        // StreamingResponseBody runs on an async thread after this method returns,
+        // so the request thread is released while rows are being written
+        StreamingResponseBody body = outputStream -> writeUsersAsNdjson(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    /**
+     * GET /api/users/changes?since={token} - Users created, updated or deleted since a token
+     * HTTP Method: GET
+     * Without ?since= returns no changes and a starting token: take it before a full reload
+     * Response: upserts, deleted IDs and the token for the next call
+     * 410 Gone means the token expired or too much changed: reload everything and start over
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChanges> getChanges(@RequestParam(required = false) String since) {
         try {
-            // Call service method to get all users
-            List<User> users = userService.getAllUsers();
+            if (since == null || since.isEmpty()) {
+                UserChanges start = new UserChanges(Collections.emptyList(), Collections.emptyList(),
+                        userSyncService.currentToken());
+                return new ResponseEntity<>(start, HttpStatus.OK);
+            }
+            
+            UserChanges changes = userSyncService.getChangesSince(since, maxSyncChanges);
+            return new ResponseEntity<>(changes, HttpStatus.OK);
             
-            // Return HTTP 200 OK with the list of users
-            // ResponseEntity allows us to control HTTP status codes and headers
-            return new ResponseEntity<>(users, HttpStatus.OK);
+        } catch (SyncTokenExpiredException e) {
+            // Return HTTP 410 Gone so the client falls back to a full reload
+            return new ResponseEntity<>(null, HttpStatus.GONE);
             
-        } catch (Exception e) {
-            // Return HTTP 500 Internal Server Error if something goes wrong
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException e) {
+            // Return HTTP 400 Bad Request for a malformed token
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * GET /api/users/stream - Live feed of user changes as Server-Sent Events
+     * HTTP Method: GET
+     * Events are named created/updated/deleted; data is the user (or {"id": ...} for deletes)
+     * Bursts for the same user are coalesced; a client that falls too far behind is
+     * disconnected and should resync through /api/users/changes after reconnecting
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        // The request goes async: no thread is held while the client waits for events
+        return eventBroadcaster.subscribe();
+    }
+    
+    /**
+     * GET /api/users?ids=1,2,3 - Retrieve many users by ID in one request
+     * HTTP Method: GET
+     * Response: the users that exist, in request order, and the IDs that matched no user
+     * Cached users come from memory; the rest are read with chunked IN-list queries
+     * Returns 304 Not Modified when If-None-Match matches the collection ETag
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<UserLookupResult> getUsersByIds(@RequestParam List<Long> ids, WebRequest request) {
+        if (ids.size() > maxLookupIds) {
+            // Return HTTP 413 Payload Too Large if the request asks for too many IDs
+            return new ResponseEntity<>(null, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        if (ids.contains(null)) {
+            // Return HTTP 400 Bad Request for an empty entry such as ?ids=1,,3
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        String etag = representationEtag(collectionVersion.etag(), request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(userService.getUsersByIds(ids));
+    }
+    
+    /**
+     * POST /api/users/lookup - Retrieve many users by ID, for ID lists too long for a URL
+     * HTTP Method: POST (reads only; POST just carries the body)
+     * @RequestBody JSON array of user IDs
+     * Response: same as GET /api/users?ids=
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<UserLookupResult> lookupUsers(@RequestBody List<Long> ids) {
+        if (ids.size() > maxLookupIds) {
+            return new ResponseEntity<>(null, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        if (ids.contains(null)) {
+            // Return HTTP 400 Bad Request for a null entry in the array
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
+        return new ResponseEntity<>(userService.getUsersByIds(ids), HttpStatus.OK);
     }
     
     /**
      * GET /api/users/{id} - Retrieve a specific user by ID
      * HTTP Method: GET
      * @PathVariable extracts {id} from the URL path
+     * Response carries ETag (the user's version) and Last-Modified; conditional
+     * requests with a matching If-None-Match/If-Modified-Since get 304 Not Modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        try {
-            // Get user by ID from service
-            Optional<User> user = userService.getUserById(id);
-            
-            // Check if user exists
-            if (user.isPresent()) {
-                // Return HTTP 200 OK with user data
-                return new ResponseEntity<>(user.get(), HttpStatus.OK);
-            } else {
-                // Return HTTP 404 Not Found if user doesn't exist
-                return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest request) {
+        // Get user by ID from service
+        Optional<User> user = userService.getUserById(id);
+        
+        // Check if user exists
+        if (user.isPresent()) {
+            String etag = userEtag(user.get(), request);
+            if (request.checkNotModified(etag, lastModified(user.get()))) {
+                // Client's copy is current; Spring has already set 304 and the headers
+                return null;
             }
             
-        } catch (Exception e) {
-            // Return HTTP 500 Internal Server Error for any other errors
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            // Return HTTP 200 OK with user data
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(user.get());
+        } else {
+            // Return HTTP 404 Not Found if user doesn't exist
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         }
     }
     
@@ -86,14 +364,15 @@ public class UserController {
             // Return HTTP 201 Created with the saved user data
             return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
             
-        } catch (RuntimeException e) {
-            // Handle business logic errors (like duplicate email)
-            // Return HTTP 400 Bad Request with error message
-            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (DuplicateEmailException e) {
+            // The unique constraint on email rejected the insert
+            // Return HTTP 409 Conflict
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
             
-        } catch (Exception e) {
-            // Handle unexpected errors
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (DataIntegrityViolationException e) {
+            // Any other constraint the row violates (e.g. check constraints)
+            // Return HTTP 400 Bad Request
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
     
@@ -102,42 +381,51 @@ public class UserController {
      * HTTP Method: PUT
      * @PathVariable gets the user ID from URL
      * @RequestBody gets the updated user data from request body
+     * An If-Match header with the user's ETag makes the update conditional (412 if stale)
      */
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, 
-                                         @Valid @RequestBody User user) {
+                                         @Valid @RequestBody User user,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         WebRequest request) {
         try {
             // Call service to update the user
-            User updatedUser = userService.updateUser(id, user);
+            User updatedUser = userService.updateUser(id, user, parseIfMatch(ifMatch));
             
-            // Return HTTP 200 OK with updated user data
-            return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+            // Return HTTP 200 OK with updated user data and its new ETag
+            return ResponseEntity.ok()
+                    .eTag(userEtag(updatedUser, request))
+                    .body(updatedUser);
             
-        } catch (RuntimeException e) {
-            // Handle business logic errors (user not found, email conflict)
-            if (e.getMessage().contains("not found")) {
-                // Return HTTP 404 Not Found if user doesn't exist
-                return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
-            } else {
-                // Return HTTP 400 Bad Request for other business logic errors
-                return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
-            }
+        } catch (UserNotFoundException e) {
+            // Return HTTP 404 Not Found if user doesn't exist
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+            
+        } catch (VersionConflictException e) {
+            // Return HTTP 412 Precondition Failed if the client's copy is stale
+            return new ResponseEntity<>(null, HttpStatus.PRECONDITION_FAILED);
+            
+        } catch (DuplicateEmailException e) {
+            // Return HTTP 409 Conflict if the new email belongs to another user
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
             
-        } catch (Exception e) {
-            // Handle unexpected errors
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (DataIntegrityViolationException e) {
+            // Return HTTP 400 Bad Request for other constraint violations
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
     
     /**
      * DELETE /api/users/{id} - Delete a user
      * HTTP Method: DELETE
+     * An If-Match header with the user's ETag makes the delete conditional (412 if stale)
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<String> deleteUser(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            // Call service to delete user
-            boolean deleted = userService.deleteUser(id);
+            // Call service to delete user (conditionally, if If-Match was sent)
+            boolean deleted = userService.deleteUser(id, parseIfMatch(ifMatch));
             
             if (deleted) {
                 // Return HTTP 200 OK with success message
@@ -147,54 +435,357 @@ public class UserController {
                 return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
             }
             
-        } catch (Exception e) {
-            // Handle unexpected errors
-            return new ResponseEntity<>("Error deleting user", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (VersionConflictException e) {
+            // Return HTTP 412 Precondition Failed if the client's copy is stale
+            return new ResponseEntity<>("User was modified", HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+    
+    /**
+     * POST /api/users/batch - Create many users in one request
+     * HTTP Method: POST
+     * @RequestBody JSON array of user objects
+     * Response: per-row results in request order; rows are validated individually
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> createUsers(@RequestBody List<User> users) {
+        if (users.size() > maxBatchRows) {
+            // Return HTTP 413 Payload Too Large if the request exceeds the batch limit
+            return new ResponseEntity<>(null, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        BatchResponse response = new BatchResponse(userBatchService.createUsers(users));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
+    /**
+     * PUT /api/users/batch - Update many users in one request
+     * HTTP Method: PUT
+     * @RequestBody JSON array of user objects, each with its id
+     * Response: per-row results in request order
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResponse> updateUsers(@RequestBody List<User> users) {
+        if (users.size() > maxBatchRows) {
+            return new ResponseEntity<>(null, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        BatchResponse response = new BatchResponse(userBatchService.updateUsers(users));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
+    /**
+     * DELETE /api/users/batch - Delete many users in one request
+     * HTTP Method: DELETE
+     * @RequestBody JSON array of user IDs
+     * Response: per-ID results in request order
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponse> deleteUsers(@RequestBody List<Long> ids) {
+        if (ids.size() > maxBatchRows) {
+            return new ResponseEntity<>(null, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        BatchResponse response = new BatchResponse(userBatchService.deleteUsers(ids));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
+    /**
+     * POST /api/users/import - Create users from a CSV or NDJSON upload
+     * HTTP Method: POST
+     * Content-Type: text/csv (header row naming name, email and optionally phone, createdAt)
+     *               or application/x-ndjson (one user object per line)
+     * Response: counts, the first rejected rows with their line numbers, and throughput
+     * The body is parsed, validated and inserted in chunks as it arrives, so any file size works
+     */
+    @PostMapping(path = "/import", consumes = {"text/csv", APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportSummary> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                     InputStream body) throws IOException {
+        try {
+            BulkFormat format = BulkFormat.fromContentType(MediaType.parseMediaType(contentType));
+            ImportSummary summary = userImportService.importUsers(body, format);
+            // Input that broke off part-way is a 400, but with the summary: earlier chunks are committed
+            HttpStatus status = summary.getAbortedReason() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+            return new ResponseEntity<>(summary, status);
+        } catch (IllegalArgumentException e) {
+            // Return HTTP 400 Bad Request for a CSV body without a usable header row
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * GET /api/users/export?format={csv|ndjson} - Download every user
+     * HTTP Method: GET
+     * Response: attachment in ID order, streamed from a forward-only database cursor
+     * The output can be fed back into POST /api/users/import
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
+        // Written on an async thread after this method returns, like ?stream=true
+        StreamingResponseBody body = outputStream -> userExportService.exportUsers(outputStream, bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(bulkFormat.getMediaType(), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + bulkFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
     
     /**
-     * GET /api/users/search?name={name} - Search users by name
+     * GET /api/users/search?name={name}&limit={n} - Search users by name, email or phone
      * HTTP Method: GET with query parameter
      * @RequestParam extracts query parameters from URL
      */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam(required = false) String name) {
+    public ResponseEntity<List<User>> searchUsers(@RequestParam(required = false) String name,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  WebRequest request) {
+        if (name == null || name.trim().isEmpty()) {
+            // If no search term provided, return the first page of users
+            return getAllUsers(0L, null, request);
+        }
+        
+        // Unchanged collection: answer 304 without running the search
+        String etag = representationEtag(collectionVersion.etag(), request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        // Search users by name using service
+        List<User> users = userService.searchUsersByName(name, resolvePageLimit(limit));
+        
+        // Return HTTP 200 OK with search results
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(users);
+    }
+    
+    /**
+     * GET /api/users/search?name={name}&fields=id,name&limit={n} - Search, selected properties only
+     * HTTP Method: GET with query parameters
+     * Response: JSON array of objects holding just the requested properties (id is always included)
+     */
+    @GetMapping(path = "/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchUserFields(@RequestParam(required = false) String name,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      @RequestParam String fields,
+                                                                      WebRequest request) {
         try {
             if (name == null || name.trim().isEmpty()) {
-                // If no search term provided, return all users
-                return getAllUsers();
+                // If no search term provided, return the first page of users
+                return getUserFields(0L, null, fields, request);
             }
             
-            // Search users by name using service
-            List<User> users = userService.searchUsersByName(name);
+            Set<UserField> selected = UserField.parseList(fields);
             
-            // Return HTTP 200 OK with search results
-            return new ResponseEntity<>(users, HttpStatus.OK);
+            String etag = representationEtag(collectionVersion.etag(), request);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             
-        } catch (Exception e) {
-            // Handle errors
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            List<Map<String, Object>> users = userService.searchUserFieldsByName(name, resolvePageLimit(limit), selected);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(users);
+            
+        } catch (IllegalArgumentException e) {
+            // Return HTTP 400 Bad Request for an unknown field name
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
     
     /**
-     * GET /api/users/count - Get total user count
+     * GET /api/users/query - Filter, sort and page users in one database round trip
+     * HTTP Method: GET with query parameters (all optional)
+     *   name, email, phone      - case-insensitive prefix filters
+     *   createdFrom, createdTo  - ISO date-times (from inclusive, to exclusive)
+     *   sort                    - id, name, email or createdAt; prefix with "-" for descending
+     *   limit                   - page size
+     *   offset or cursor        - rows to skip, or nextCursor from the previous page (not both)
+     *   total=true              - also return the number of matching users
+     *                             (counted on the first page, then carried in the cursor)
+     * Response: { users, total, nextCursor }
+     */
+    @GetMapping("/query")
+    public ResponseEntity<UserQueryResult> queryUsers(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean total,
+            WebRequest request) {
+        // Deep offsets make the database read and discard every skipped row
+        if (offset < 0 || offset > maxQueryOffset || (offset > 0 && cursor != null)) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            UserQuery query = new UserQuery();
+            query.setNamePrefix(name);
+            query.setEmailPrefix(email);
+            query.setPhonePrefix(phone);
+            query.setCreatedFrom(createdFrom);
+            query.setCreatedTo(createdTo);
+            query.setSort(sort);
+            query.setLimit(resolvePageLimit(limit));
+            query.setOffset(offset);
+            query.setIncludeTotal(total);
+            
+            // Unchanged collection: answer 304 without running the query
+            String etag = representationEtag(collectionVersion.etag(), request);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            
+            UserQueryResult result = userQueryService.query(query, cursor);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(result);
+            
+        } catch (IllegalArgumentException e) {
+            // Return HTTP 400 Bad Request for an unknown sort key or a bad cursor
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * GET /api/users/count?exact={true|false} - Get total user count
      * HTTP Method: GET
      * Returns just a number instead of user objects
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> getUserCount() {
+    public ResponseEntity<Long> getUserCount(@RequestParam(defaultValue = "false") boolean exact,
+                                             WebRequest request) {
+        // Unchanged collection: answer 304 (an exact count always re-queries)
+        String etag = representationEtag(collectionVersion.etag(), request);
+        if (!exact && request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        // Get user count from service (maintained counter unless ?exact=true)
+        long count = userService.getUserCount(exact);
+        
+        // Return HTTP 200 OK with count
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(count);
+    }
+    
+    // Strong ETag of a single user: its optimistic-locking version, plus the format suffix
+    private static String userEtag(User user, WebRequest request) {
+        return representationEtag("\"" + user.getVersion() + "\"", request);
+    }
+    
+    // The same data as JSON, CBOR or Smile is different bytes, so each format gets its own
+    // tag: a cache revalidating its CBOR copy must not get a 304 for the JSON one.
+    // JSON, the default, keeps the bare tag
+    private static String representationEtag(String etag, WebRequest request) {
+        String suffix = formatSuffix(request.getHeader(HttpHeaders.ACCEPT));
+        if (suffix.isEmpty()) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + suffix + "\"";
+    }
+    
+    // ETag suffix of the format content negotiation picks for this Accept header
+    // Mirrors the converter order: JSON first, so */* and application/* get JSON
+    private static String formatSuffix(String accept) {
+        if (accept == null) {
+            return "";
+        }
         try {
-            // Get user count from service
-            long count = userService.getUserCount();
-            
-            // Return HTTP 200 OK with count
-            return new ResponseEntity<>(count, HttpStatus.OK);
-            
-        } catch (Exception e) {
-            // Handle errors
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                if (mediaType.getQualityValue() == 0) {
+                    continue;
+                }
+                if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+                if (mediaType.includes(MediaType.APPLICATION_CBOR)) {
+                    return CBOR_ETAG_SUFFIX;
+                }
+                if (mediaType.includes(APPLICATION_SMILE)) {
+                    return SMILE_ETAG_SUFFIX;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Content negotiation answers 406 for this request anyway
+        }
+        return "";
+    }
+    
+    // Last-Modified of a single user in epoch millis, or -1 if unknown
+    private static long lastModified(User user) {
+        if (user.getUpdatedAt() == null) {
+            return -1;
+        }
+        return user.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    // Turn an If-Match header into the expected version; null means unconditional
+    // Weak or malformed tags can never match (If-Match uses strong comparison), so map them to -1
+    // A tag from any format names the same version, so the format suffix is ignored
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        String version = tag.substring(1, tag.length() - 1);
+        for (String suffix : new String[] {CBOR_ETAG_SUFFIX, SMILE_ETAG_SUFFIX}) {
+            if (version.endsWith(suffix)) {
+                version = version.substring(0, version.length() - suffix.length());
+            }
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+    
+    // Clamp a client-supplied page size into [1, maxPageLimit]
+    private int resolvePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        return Math.max(1, Math.min(limit, maxPageLimit));
+    }
+    
+    // Serialize users one at a time as they come off the cursor
+    private void writeUsersAsNdjson(OutputStream outputStream) throws IOException {
+        // Compact output: pretty-printing would break the one-object-per-line format
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try {
+            userService.streamAllUsers(user -> {
+                try {
+                    out.write(writer.writeValueAsBytes(user));
+                    out.write('\n');
+                } catch (IOException e) {
+                    // Consumer cannot throw checked exceptions, so tunnel it out
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        out.flush();
     }
-}
\ No newline at end of file
+}
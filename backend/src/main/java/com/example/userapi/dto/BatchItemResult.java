@@ -0,0 +1,69 @@
+package com.example.userapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single row in a batch request
+ * index refers to the row's position in the request body
+ */
+// Omit null id/message from the JSON to keep large responses small
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    // What happened to the row
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        CONFLICT,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private final int index;
+
+    private final Long id;
+
+    private final Status status;
+
+    private final String message;
+
+    private BatchItemResult(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, Status status, String message) {
+        return new BatchItemResult(index, id, status, message);
+    }
+
+    // True for CREATED, UPDATED and DELETED
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
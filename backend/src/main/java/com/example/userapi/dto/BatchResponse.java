@@ -0,0 +1,47 @@
+package com.example.userapi.dto;
+
+import java.util.List;
+
+/**
+ * Response body for the /api/users/batch endpoints
+ * Summary counts plus one BatchItemResult per request row, in request order
+ */
+public class BatchResponse {
+
+    private final int total;
+
+    private final int succeeded;
+
+    private final int failed;
+
+    private final List<BatchItemResult> results;
+
+    public BatchResponse(List<BatchItemResult> results) {
+        int ok = 0;
+        for (BatchItemResult result : results) {
+            if (result.isSuccess()) {
+                ok++;
+            }
+        }
+        this.total = results.size();
+        this.succeeded = ok;
+        this.failed = results.size() - ok;
+        this.results = results;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+}
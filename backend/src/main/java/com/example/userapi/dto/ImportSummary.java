@@ -0,0 +1,109 @@
+package com.example.userapi.dto;
+
+import com.example.userapi.dto.BatchItemResult.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for POST /api/users/import
+ *
+ * Counts cover every row; errors lists the first rejected rows only (up to
+ * app.users.import.max-reported-errors), so the response stays small however bad
+ * the file is. abortedReason is set when the input became unreadable part-way through:
+ * chunks before that point are committed and counted.
+ */
+// Omit abortedReason when the import ran to completion
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportSummary {
+
+    private final long received;
+
+    private final long imported;
+
+    private final long rejected;
+
+    private final long elapsedMillis;
+
+    private final List<RowError> errors;
+
+    private final boolean errorsTruncated;
+
+    private final String abortedReason;
+
+    public ImportSummary(long received, long imported, long rejected, long elapsedMillis,
+                         List<RowError> errors, boolean errorsTruncated, String abortedReason) {
+        this.received = received;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.abortedReason = abortedReason;
+    }
+
+    // Data rows read (blank lines and the CSV header are not rows)
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? received : received * 1000 / elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public String getAbortedReason() {
+        return abortedReason;
+    }
+
+    /**
+     * Why one input row was not imported
+     * line is the 1-based line of the input the row starts on
+     */
+    public static class RowError {
+
+        private final long line;
+
+        private final Status status;
+
+        private final String message;
+
+        public RowError(long line, Status status, String message) {
+            this.line = line;
+            this.status = status;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        // INVALID, CONFLICT or FAILED
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.userapi.dto;
+
+import com.example.userapi.entity.User;
+
+import java.util.List;
+
+/**
+ * Response body for GET /api/users/changes
+ * Clients apply upserts and deletes to their local copy, then send token as ?since= next time.
+ * A change may be reported more than once around the watermark, so applying it must be idempotent.
+ */
+public class UserChanges {
+
+    // Users created or updated since the previous token
+    private final List<User> upserts;
+
+    // IDs of users deleted since the previous token
+    private final List<Long> deletes;
+
+    // Opaque watermark to send on the next call
+    private final String token;
+
+    public UserChanges(List<User> upserts, List<Long> deletes, String token) {
+        this.upserts = upserts;
+        this.deletes = deletes;
+        this.token = token;
+    }
+
+    public List<User> getUpserts() {
+        return upserts;
+    }
+
+    public List<Long> getDeletes() {
+        return deletes;
+    }
+
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.userapi.dto;
+
+import com.example.userapi.entity.User;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * User properties a client may ask for with ?fields=
+ * Each constant names the JSON property (which is also the JPA attribute) and how to
+ * read it from an in-memory User, so projections from the database and from the
+ * search index produce identical output.
+ */
+public enum UserField {
+
+    ID("id", User::getId),
+    NAME("name", User::getName),
+    EMAIL("email", User::getEmail),
+    PHONE("phone", User::getPhone),
+    CREATED_AT("createdAt", User::getCreatedAt),
+    UPDATED_AT("updatedAt", User::getUpdatedAt),
+    VERSION("version", User::getVersion);
+
+    private final String property;
+
+    private final Function<User, Object> getter;
+
+    UserField(String property, Function<User, Object> getter) {
+        this.property = property;
+        this.getter = getter;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object readFrom(User user) {
+        return getter.apply(user);
+    }
+
+    /**
+     * Parse a comma-separated ?fields= value such as "id,name,email"
+     * The ID is always included, since clients need it as the key and as the page cursor
+     * @throws IllegalArgumentException if a name is not a known field
+     */
+    public static Set<UserField> parseList(String fields) {
+        Set<UserField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(fromProperty(trimmed));
+            }
+        }
+        return result;
+    }
+
+    private static UserField fromProperty(String property) {
+        for (UserField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown user field: " + property.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userapi.dto;
+
+import com.example.userapi.entity.User;
+
+import java.util.List;
+
+/**
+ * Response body for GET /api/users?ids= and POST /api/users/lookup
+ * A repeated ID is answered once, at its first position.
+ */
+public class UserLookupResult {
+
+    // Users that exist, in request order
+    private final List<User> users;
+
+    // Requested IDs with no user, in request order
+    private final List<Long> missing;
+
+    public UserLookupResult(List<User> users, List<Long> missing) {
+        this.users = users;
+        this.missing = missing;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
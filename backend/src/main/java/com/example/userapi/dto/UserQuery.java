@@ -0,0 +1,180 @@
+package com.example.userapi.dto;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filters, sort order and paging for GET /api/users/query
+ * All filters are optional and combined with AND.
+ */
+public class UserQuery {
+
+    /**
+     * Sortable properties; anything else is rejected, so client input never reaches ORDER BY
+     */
+    public enum SortKey {
+        ID("id", "id"),
+        NAME("name", "name"),
+        EMAIL("email", "email"),
+        CREATED_AT("createdAt", "created_at");
+
+        private final String property;
+
+        private final String column;
+
+        SortKey(String property, String column) {
+            this.property = property;
+            this.column = column;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        static SortKey fromProperty(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equalsIgnoreCase(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort key: " + property.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Case-insensitive prefixes
+    private String namePrefix;
+
+    private String emailPrefix;
+
+    // Phone numbers are digits, so this prefix is matched as-is
+    private String phonePrefix;
+
+    // createdAt >= createdFrom and createdAt < createdTo
+    private LocalDateTime createdFrom;
+
+    private LocalDateTime createdTo;
+
+    private SortKey sortKey = SortKey.ID;
+
+    private boolean descending;
+
+    private int limit;
+
+    private int offset;
+
+    // Decoded keyset cursor: the sort value and ID of the last row of the previous page
+    private String afterValue;
+
+    private Long afterId;
+
+    private boolean includeTotal;
+
+    /**
+     * Parse a sort parameter: a property name, prefixed with "-" for descending order
+     */
+    public void setSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return;
+        }
+        String trimmed = sort.trim();
+        descending = trimmed.startsWith("-");
+        sortKey = SortKey.fromProperty(descending ? trimmed.substring(1) : trimmed);
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = blankToNull(namePrefix);
+    }
+
+    public String getEmailPrefix() {
+        return emailPrefix;
+    }
+
+    public void setEmailPrefix(String emailPrefix) {
+        this.emailPrefix = blankToNull(emailPrefix);
+    }
+
+    public String getPhonePrefix() {
+        return phonePrefix;
+    }
+
+    public void setPhonePrefix(String phonePrefix) {
+        this.phonePrefix = blankToNull(phonePrefix);
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public String getAfterValue() {
+        return afterValue;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfter(String afterValue, Long afterId) {
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+    }
+
+    public boolean isKeyset() {
+        return afterId != null;
+    }
+
+    public boolean isIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
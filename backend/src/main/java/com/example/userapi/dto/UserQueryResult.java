@@ -0,0 +1,41 @@
+package com.example.userapi.dto;
+
+import com.example.userapi.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for GET /api/users/query
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserQueryResult {
+
+    // One page of matching users, in the requested order
+    private final List<User> users;
+
+    // Number of users matching the filters (ignoring paging); only when ?total=true
+    // Cursor pages repeat the count taken on the first page
+    private final Long total;
+
+    // Pass as ?cursor= to get the next page; absent on the last page
+    private final String nextCursor;
+
+    public UserQueryResult(List<User> users, Long total, String nextCursor) {
+        this.users = users;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.userapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import javax.persistence.*;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 // @Entity annotation marks this class as a JPA entity that maps to a database table
@@ -15,16 +20,26 @@ public class User {
     // GenerationType.SEQUENCE uses Oracle sequences for auto-increment
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
     // @SequenceGenerator defines the sequence generator for Oracle
-    @SequenceGenerator(name = "user_seq", sequenceName = "USER_SEQ", allocationSize = 1)
+    // allocationSize = 50 lets Hibernate hand out 50 IDs per USER_SEQ.NEXTVAL round trip
+    // (pooled-lo optimizer); USER_SEQ must be created with INCREMENT BY 50 to match
+    @SequenceGenerator(name = "user_seq", sequenceName = "USER_SEQ", allocationSize = 50)
     private Long id;
     
     // @Column annotation is optional for basic mappings, but useful for constraints
+    // Bean Validation annotations mirror the table constraints so bad rows are
+    // rejected before they reach the database (checked by @Valid and batch imports)
+    @NotBlank
+    @Size(max = 100)
     @Column(nullable = false, length = 100)
     private String name;
     
+    @NotBlank
+    @Email
+    @Size(max = 150)
     @Column(unique = true, nullable = false, length = 150)
     private String email;
     
+    @Size(max = 15)
     @Column(length = 15)
     private String phone;
     
@@ -32,10 +47,30 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Automatically set on every write; used for Last-Modified headers
+    // READ_ONLY: clients can see it but never set it
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // @Version enables optimistic locking: Hibernate increments it on every update
+    // It is also the user's ETag, so clients can send If-Match on PUT/DELETE
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // @PrePersist is called before entity is saved to database
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    // @PreUpdate is called before an UPDATE of a managed entity is flushed
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
     
     // Default constructor required by JPA
@@ -89,6 +124,22 @@ public class User {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // toString method for debugging and logging
     @Override
     public String toString() {
@@ -98,6 +149,8 @@ public class User {
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
                 ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.userapi.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Marker left behind when a user is deleted, so delta sync can report the deletion
+// Rows are purged once they are older than the sync tombstone retention
+@Entity
+@Table(name = "user_tombstones")
+public class UserTombstone implements Persistable<Long> {
+    
+    // ID of the deleted user (not generated: it is the user's own ID)
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Default constructor required by JPA
+    protected UserTombstone() {}
+    
+    public UserTombstone(Long userId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    // Persistable: tombstones are insert-only, so save() can always persist
+    // without first SELECTing to check whether the assigned ID exists
+    @Override
+    public Long getId() {
+        return userId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.userapi.event;
+
+import com.example.userapi.entity.User;
+
+/**
+ * Application event published by UserService whenever a user row is written
+ * Listeners should use @TransactionalEventListener so they only react once the
+ * surrounding transaction has committed - a rollback never reaches them
+ */
+public class UserChangeEvent {
+
+    // The kind of write that happened
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+
+    private final Long userId;
+
+    // State of the user after the write; null for DELETED
+    private final User user;
+
+    private UserChangeEvent(Type type, Long userId, User user) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+    }
+
+    // Factory methods keep call sites in UserService short and readable
+    public static UserChangeEvent created(User user) {
+        return new UserChangeEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangeEvent updated(User user) {
+        return new UserChangeEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangeEvent deleted(Long userId) {
+        return new UserChangeEvent(Type.DELETED, userId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeEvent{" +
+                "type=" + type +
+                ", userId=" + userId +
+                '}';
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.userapi.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed user changes to Server-Sent Events subscribers (GET /api/users/stream)
+ *
+ * Connections are async servlet requests, so an idle subscriber holds no thread.
+ * Each subscriber has a bounded buffer keyed by user ID: a burst of writes to the
+ * same user collapses into its latest state. Buffers are drained by a shared sender
+ * pool; sends are blocking socket writes, so a client that stops reading ties up one
+ * sender thread until the write fails (bounded by server.tomcat.connection-timeout).
+ *
+ * A subscriber is disconnected, and its client can reconnect and catch up through
+ * /api/users/changes, when
+ * - its buffer fills up because it is too slow to keep up, or
+ * - one send has been blocked for longer than max-send-time.
+ * Emitters are completed on a separate closer pool: complete() waits for the emitter's
+ * lock, which a send stuck on a stalled client holds, and the thread offering events
+ * is the one committing a transaction.
+ */
+@Component
+public class UserEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventBroadcaster.class);
+
+    // Subscriber.sendStarted while no send is in progress
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Shared by all subscribers; a subscriber is drained by at most one thread at a time.
+    // Grows to sender-threads as drains overlap and shrinks again when idle
+    private final ExecutorService senders;
+
+    // Completes dropped subscribers' emitters, which may wait behind a stuck send
+    private final ExecutorService closers;
+
+    private final int bufferSize;
+
+    private final long timeoutMillis;
+
+    private final long maxSendNanos;
+
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private final Counter coalesced;
+
+    private final Counter overflowDropped;
+
+    private final Counter stalledDropped;
+
+    public UserEventBroadcaster(@Value("${app.stream.buffer-size:256}") int bufferSize,
+                                @Value("${app.stream.timeout:30m}") Duration timeout,
+                                @Value("${app.stream.sender-threads:32}") int senderThreads,
+                                @Value("${app.stream.max-send-time:5s}") Duration maxSendTime,
+                                MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSendNanos = maxSendTime.toNanos();
+
+        ThreadPoolExecutor senderPool = new ThreadPoolExecutor(senderThreads, senderThreads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads("user-stream-sender-"));
+        senderPool.allowCoreThreadTimeOut(true);
+        this.senders = senderPool;
+        this.closers = Executors.newCachedThreadPool(daemonThreads("user-stream-closer-"));
+
+        Gauge.builder("users.stream.subscribers", subscribers, Set::size)
+                .description("Connected Server-Sent Events subscribers")
+                .register(meterRegistry);
+        Gauge.builder("users.stream.queue.depth", this, UserEventBroadcaster::totalQueueDepth)
+                .description("Events buffered across all subscribers")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("users.stream.coalesced")
+                .description("Events merged into a pending event for the same user")
+                .register(meterRegistry);
+        this.overflowDropped = Counter.builder("users.stream.dropped")
+                .description("Subscribers disconnected for being too slow")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.stalledDropped = Counter.builder("users.stream.dropped")
+                .description("Subscribers disconnected for being too slow")
+                .tag("reason", "stalled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a new subscriber
+     * @return The emitter to return from the controller method
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Fan a committed change out to every subscriber's buffer
+     * Runs on the committing thread, so it only enqueues; sending happens on the sender pool
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Keep idle connections alive through proxies and detect dead clients
+     */
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerHeartbeat();
+        }
+    }
+
+    /**
+     * Drop subscribers whose current send has been blocked for longer than max-send-time
+     * The stuck sender thread is freed once the write fails; meanwhile the client gets no
+     * more events and the rest of the sender pool keeps serving everyone else
+     */
+    @Scheduled(fixedDelayString = "${app.stream.stall-check-interval:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendStarted = subscriber.sendStarted;
+            if (sendStarted != NOT_SENDING && now - sendStarted > maxSendNanos
+                    && subscriber.disconnect(stalledDropped)) {
+                log.debug("Disconnected stalled user stream subscriber (send blocked for over {} ms)",
+                        TimeUnit.NANOSECONDS.toMillis(maxSendNanos));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+        closers.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private double totalQueueDepth() {
+        int depth = 0;
+        for (Subscriber subscriber : subscribers) {
+            depth += subscriber.depth();
+        }
+        return depth;
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+
+        // User ID -> latest pending change; guarded by this
+        private final Map<Long, UserChangeEvent> pending = new LinkedHashMap<>();
+
+        private boolean heartbeatDue;
+
+        // True while a drain task is queued or running; guarded by this
+        private boolean scheduled;
+
+        private boolean closed;
+
+        // System.nanoTime() when the send in progress started, else NOT_SENDING
+        volatile long sendStarted = NOT_SENDING;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(UserChangeEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.containsKey(event.getUserId())) {
+                    // Same user changed again before we sent the previous change: keep only the latest
+                    pending.put(event.getUserId(), event);
+                    coalesced.increment();
+                } else if (pending.size() < bufferSize) {
+                    pending.put(event.getUserId(), event);
+                } else {
+                    closed = true;
+                    pending.clear();
+                }
+                if (!closed) {
+                    scheduleDrain();
+                    return;
+                }
+            }
+            // Buffer overflow: this client cannot keep up
+            dropped(overflowDropped);
+            log.debug("Disconnected slow user stream subscriber (buffer of {} full)", bufferSize);
+        }
+
+        /**
+         * @return true if this call closed the subscriber, false if it was already closed
+         */
+        boolean disconnect(Counter reason) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                heartbeatDue = false;
+                pending.clear();
+            }
+            dropped(reason);
+            return true;
+        }
+
+        // Caller has just closed the subscriber; never completes the emitter on the caller's thread
+        private void dropped(Counter reason) {
+            reason.increment();
+            subscribers.remove(this);
+            closers.execute(emitter::complete);
+        }
+
+        synchronized void offerHeartbeat() {
+            if (!closed) {
+                heartbeatDue = true;
+                scheduleDrain();
+            }
+        }
+
+        synchronized int depth() {
+            return pending.size();
+        }
+
+        // Caller holds the lock
+        private void scheduleDrain() {
+            if (!scheduled) {
+                scheduled = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<UserChangeEvent> batch;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !heartbeatDue)) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = pending.isEmpty() ? Collections.emptyList() : new ArrayList<>(pending.values());
+                    pending.clear();
+                    heartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+                try {
+                    for (UserChangeEvent event : batch) {
+                        sendStarted = System.nanoTime();
+                        emitter.send(toSseEvent(event));
+                    }
+                    if (heartbeat && batch.isEmpty()) {
+                        sendStarted = System.nanoTime();
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away (or the emitter already completed)
+                    synchronized (this) {
+                        closed = true;
+                        scheduled = false;
+                        pending.clear();
+                    }
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sendStarted = NOT_SENDING;
+                }
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent(UserChangeEvent event) {
+            // Deletes carry just the ID; creates/updates carry the full user
+            Object data = event.getUser() != null
+                    ? event.getUser()
+                    : Collections.singletonMap("id", event.getUserId());
+            return SseEmitter.event()
+                    .id(Long.toString(eventSequence.incrementAndGet()))
+                    .name(event.getType().name().toLowerCase())
+                    .data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
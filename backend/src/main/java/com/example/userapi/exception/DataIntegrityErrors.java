@@ -0,0 +1,38 @@
+package com.example.userapi.exception;
+
+import java.sql.SQLException;
+
+/**
+ * Helpers for classifying constraint violations reported by the database
+ */
+public final class DataIntegrityErrors {
+
+    // Oracle: ORA-00001 unique constraint violated
+    private static final int ORACLE_UNIQUE_VIOLATION = 1;
+
+    // SQL standard state for unique violations (H2, PostgreSQL, ...)
+    private static final String SQLSTATE_UNIQUE_VIOLATION = "23505";
+
+    private DataIntegrityErrors() {
+    }
+
+    /**
+     * @return true if any SQLException in the cause chain is a unique-constraint violation
+     */
+    public static boolean isUniqueViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                String state = sqlException.getSQLState();
+                if (SQLSTATE_UNIQUE_VIOLATION.equals(state)
+                        || (sqlException.getErrorCode() == ORACLE_UNIQUE_VIOLATION && state != null && state.startsWith("23"))) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.userapi.exception;
+
+/**
+ * Thrown when a write would give a user an email that another user already has
+ * Raised from the database's unique constraint on users.email, so it is race-free
+ * Mapped to HTTP 409 Conflict by UserController
+ */
+public class DuplicateEmailException extends RuntimeException {
+
+    private final String email;
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("User with email " + email + " already exists", cause);
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.userapi.exception;
+
+/**
+ * Thrown when a delta-sync token is too old to be answered incrementally
+ * (its tombstones have been purged) or when the delta is too large to return
+ * The client must reload the full user list and start again from a fresh token
+ * Mapped to HTTP 410 Gone by UserController
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
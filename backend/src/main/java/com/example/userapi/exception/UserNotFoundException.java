@@ -0,0 +1,19 @@
+package com.example.userapi.exception;
+
+/**
+ * Thrown when an operation targets a user ID that does not exist
+ * Mapped to HTTP 404 Not Found by UserController
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    private final Long userId;
+
+    public UserNotFoundException(Long userId) {
+        super("User with ID " + userId + " not found");
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
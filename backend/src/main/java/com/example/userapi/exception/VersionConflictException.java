@@ -0,0 +1,27 @@
+package com.example.userapi.exception;
+
+/**
+ * Thrown when an If-Match precondition fails: the user exists but has moved on
+ * from the version the client last saw
+ * Mapped to HTTP 412 Precondition Failed by UserController
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final Long userId;
+
+    private final Long expectedVersion;
+
+    public VersionConflictException(Long userId, Long expectedVersion) {
+        super("User with ID " + userId + " is no longer at version " + expectedVersion);
+        this.userId = userId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
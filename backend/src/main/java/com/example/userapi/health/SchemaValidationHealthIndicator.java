@@ -0,0 +1,106 @@
+package com.example.userapi.health;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Entity-to-schema validation (what ddl-auto=validate does) run in the background
+ * once the application is ready, reported as the "schemaValidation" health component
+ *
+ * Use with spring.jpa.hibernate.ddl-auto=none: startup no longer waits for Hibernate to
+ * read the Oracle data dictionary, and a mismatch turns /actuator/health DOWN instead of
+ * failing the boot. The component is not part of the readiness group, so
+ * /actuator/health/readiness does not wait for it either.
+ *
+ * Status is UNKNOWN until the check finishes, then UP or DOWN with the validation error.
+ */
+@Component
+@ConditionalOnProperty(name = "app.schema.check.enabled", havingValue = "true")
+public class SchemaValidationHealthIndicator implements HealthIndicator, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaValidationHealthIndicator.class);
+
+    // Captured while the session factory is built; released once the check has run
+    private volatile Metadata metadata;
+
+    private volatile SessionFactoryServiceRegistry serviceRegistry;
+
+    private volatile Health health = Health.unknown().withDetail("state", "pending").build();
+
+    /**
+     * Register an integrator that keeps the mapping metadata Hibernate validates against
+     * Hibernate does not expose it from the session factory afterwards
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        IntegratorProvider provider = () -> Collections.singletonList(new MetadataCapture());
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, provider);
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validateOnStartup() {
+        Thread validator = new Thread(this::validate, "schema-validator");
+        validator.setDaemon(true);
+        validator.start();
+    }
+
+    private void validate() {
+        if (metadata == null) {
+            health = Health.unknown().withDetail("state", "no Hibernate metadata captured").build();
+            log.warn("Schema validation skipped: the JPA entity manager factory was not built by Hibernate");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            // Same check as ddl-auto=validate: every mapped table, column and sequence must exist with a compatible type
+            new SchemaValidator().validate(metadata, serviceRegistry);
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            health = Health.up().withDetail("durationMs", elapsed).build();
+            log.info("Schema validation passed in {} ms", elapsed);
+        } catch (RuntimeException e) {
+            health = Health.down().withDetail("error", String.valueOf(e.getMessage())).build();
+            log.error("Schema validation failed: entity mappings do not match the database schema", e);
+        } finally {
+            metadata = null;
+            serviceRegistry = null;
+        }
+    }
+
+    private class MetadataCapture implements Integrator {
+
+        @Override
+        public void integrate(Metadata bootMetadata, SessionFactoryImplementor sessionFactory,
+                              SessionFactoryServiceRegistry registry) {
+            metadata = bootMetadata;
+            serviceRegistry = registry;
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+            metadata = null;
+            serviceRegistry = null;
+        }
+    }
+}
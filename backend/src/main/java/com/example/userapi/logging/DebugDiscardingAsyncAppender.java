@@ -0,0 +1,20 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender that sheds only TRACE/DEBUG events when its queue runs low
+ *
+ * Logback's AsyncAppender discards TRACE, DEBUG and INFO once fewer than
+ * discardingThreshold slots remain. Here INFO and above are kept until the queue is
+ * actually full (and with neverBlock, only then dropped rather than blocking the caller).
+ */
+public class DebugDiscardingAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.DEBUG_INT;
+    }
+}
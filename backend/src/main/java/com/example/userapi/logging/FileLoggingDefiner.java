@@ -0,0 +1,24 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.core.PropertyDefinerBase;
+
+/**
+ * Logback property definer: "on" when a log file is configured, otherwise "off"
+ *
+ * Spring Boot publishes logging.file.name / logging.file.path as the LOG_FILE / LOG_PATH
+ * system properties before logback-spring.xml is read, and only when they are non-empty.
+ * logback-spring.xml uses the value to pick the optional file appender include, so a
+ * profile that blanks logging.file.name logs to the console only.
+ */
+public class FileLoggingDefiner extends PropertyDefinerBase {
+
+    @Override
+    public String getPropertyValue() {
+        return isSet("LOG_FILE") || isSet("LOG_PATH") ? "on" : "off";
+    }
+
+    private static boolean isSet(String name) {
+        String value = System.getProperty(name);
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.userapi.metrics;
+
+import com.example.userapi.repository.UserQueryRepository;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.repository.UserTombstoneRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every repository call (UserRepository, UserTombstoneRepository, UserQueryRepository) and records how many rows it returned or changed
+ *
+ * Meters (tags: repository, method):
+ * - users.repository.calls: timer with percentile histogram, plus an outcome tag (success/error)
+ * - users.repository.rows: rows returned (collections, Optional) or affected (@Modifying int results)
+ *
+ * Calls slower than app.metrics.repository.slow-threshold are logged at WARN. String
+ * arguments are logged only by length, because names, emails and phone numbers are
+ * personal data; IDs, numbers, dates and paging are logged as-is.
+ *
+ * Meters are resolved once per method and cached, so a call costs two clock reads
+ * and a few counter updates.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.metrics.repository.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMetricsAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    // Repository name -> method -> meters; methods inherited from JpaRepository are shared
+    // between repositories, so the repository is part of the key
+    private final ConcurrentMap<String, ConcurrentMap<Method, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry,
+                                   @Value("${app.metrics.repository.slow-threshold:200ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    // this(...) matches calls made through the Spring Data proxy, including inherited CRUD methods
+    @Around("this(com.example.userapi.repository.UserRepository) || "
+            + "this(com.example.userapi.repository.UserTombstoneRepository) || "
+            + "this(com.example.userapi.repository.UserQueryRepository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters methodMeters = metersFor(joinPoint);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            methodMeters.errors.record(elapsed, TimeUnit.NANOSECONDS);
+            logIfSlow(methodMeters, joinPoint.getArgs(), elapsed);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        methodMeters.successes.record(elapsed, TimeUnit.NANOSECONDS);
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            methodMeters.rows.record(rows);
+        }
+        logIfSlow(methodMeters, joinPoint.getArgs(), elapsed);
+        return result;
+    }
+
+    private MethodMeters metersFor(ProceedingJoinPoint joinPoint) {
+        String repository = repositoryName(joinPoint.getThis());
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return meters.computeIfAbsent(repository, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> new MethodMeters(repository, method.getName()));
+    }
+
+    private static String repositoryName(Object proxy) {
+        if (proxy instanceof UserRepository) {
+            return UserRepository.class.getSimpleName();
+        }
+        if (proxy instanceof UserTombstoneRepository) {
+            return UserTombstoneRepository.class.getSimpleName();
+        }
+        return UserQueryRepository.class.getSimpleName();
+    }
+
+    private void logIfSlow(MethodMeters methodMeters, Object[] args, long elapsedNanos) {
+        if (elapsedNanos >= slowThresholdNanos && log.isWarnEnabled()) {
+            log.warn("Slow repository call {}.{}({}) took {} ms", methodMeters.repository, methodMeters.method,
+                    redact(args), elapsedNanos / 1_000_000);
+        }
+    }
+
+    // Rows returned or affected, or -1 when the result is not a row count (count(), streams, ...)
+    private static long rowCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer) {
+            // @Modifying queries return the affected-row count
+            return (Integer) result;
+        }
+        return -1;
+    }
+
+    static String redact(Object[] args) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(redact(args[i]));
+        }
+        return out.toString();
+    }
+
+    private static String redact(Object arg) {
+        if (arg == null || arg instanceof Number || arg instanceof Boolean
+                || arg instanceof TemporalAccessor || arg instanceof Pageable) {
+            return String.valueOf(arg);
+        }
+        if (arg instanceof CharSequence) {
+            return "<string:" + ((CharSequence) arg).length() + ">";
+        }
+        if (arg instanceof Collection) {
+            return "<" + ((Collection<?>) arg).size() + " items>";
+        }
+        if (arg instanceof Map) {
+            return "<" + ((Map<?, ?>) arg).size() + " entries>";
+        }
+        // Entities and anything else: type only
+        return "<" + arg.getClass().getSimpleName() + ">";
+    }
+
+    private final class MethodMeters {
+
+        final String repository;
+
+        final String method;
+
+        final Timer successes;
+
+        final Timer errors;
+
+        final DistributionSummary rows;
+
+        MethodMeters(String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+            this.successes = timer(repository, method, "success");
+            this.errors = timer(repository, method, "error");
+            this.rows = DistributionSummary.builder("users.repository.rows")
+                    .description("Rows returned or affected per repository call")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String repository, String method, String outcome) {
+            return Timer.builder("users.repository.calls")
+                    .description("Repository call latency")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
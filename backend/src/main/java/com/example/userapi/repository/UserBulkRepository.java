@@ -0,0 +1,101 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC reads and writes for POST /api/users/import and GET /api/users/export
+ *
+ * Imports skip the persistence context entirely: no entity snapshots, no dirty
+ * checking, one JDBC batch per chunk. Exports read through a forward-only cursor and
+ * hand each row to the caller as it arrives, so neither side holds more than one
+ * chunk (or one fetch) of rows.
+ */
+@Repository
+public class UserBulkRepository {
+
+    // Must match allocationSize on User's @SequenceGenerator and USER_SEQ's INCREMENT BY:
+    // each NEXTVAL reserves this many IDs, exactly as Hibernate's pooled-lo optimizer does,
+    // so IDs handed out here never collide with IDs Hibernate hands out
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    // Rows the driver fetches per round trip while exporting
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, name, email, phone, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Assign IDs from USER_SEQ and insert the users as one JDBC batch
+     * createdAt and updatedAt must already be set; version starts at 0 like Hibernate's
+     * @param users Users to insert; their id and version are filled in
+     */
+    public void insertAll(List<User> users) {
+        assignIds(users);
+        // Executes: INSERT INTO users (...) VALUES (?, ...) as a single executeBatch()
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setLong(1, user.getId());
+                ps.setString(2, user.getName());
+                ps.setString(3, user.getEmail());
+                ps.setString(4, user.getPhone());
+                ps.setObject(5, user.getCreatedAt());
+                ps.setObject(6, user.getUpdatedAt());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+        for (User user : users) {
+            user.setVersion(0L);
+        }
+    }
+
+    /**
+     * Read every user in ID order, one row at a time
+     * Holds a connection (and Oracle's read-consistent snapshot) until the last row is read
+     * @param consumer Called once per row, on the calling thread, in ID order
+     */
+    public void forEachUser(Consumer<User> consumer) {
+        // Executes: SELECT id, name, ... FROM users ORDER BY id
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT " + UserQueryRepository.COLUMNS + " FROM users ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(UserQueryRepository.USER_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    // One NEXTVAL per ID_ALLOCATION_SIZE rows instead of one per row
+    private void assignIds(List<User> users) {
+        long next = 0;
+        long end = 0;
+        for (User user : users) {
+            if (next == end) {
+                // Executes: SELECT USER_SEQ.NEXTVAL FROM dual
+                Long block = jdbcTemplate.queryForObject("SELECT USER_SEQ.NEXTVAL FROM dual", Long.class);
+                next = block;
+                end = block + ID_ALLOCATION_SIZE;
+            }
+            user.setId(next++);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.dto.UserQuery;
+import com.example.userapi.dto.UserQueryResult;
+import com.example.userapi.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SQL for GET /api/users/query, built from a UserQuery
+ *
+ * Plain JDBC because the total is an analytic COUNT(*) OVER () on each row, which JPQL
+ * cannot express. The analytic count visits every filtered row, so it is only used on
+ * offset pages; keyset pages get their total from the cursor (see UserQueryService) or,
+ * when the cursor has none, from one separate COUNT(*). Every client value is a bind parameter; column names in ORDER BY come
+ * only from the UserQuery.SortKey whitelist.
+ *
+ * Predicates are written so the V5 indexes apply: prefix filters as UPPER(col) LIKE 'ABC%'
+ * (function-based indexes), and keyset paging as col >= :v AND (col > :v OR id > :id),
+ * whose leading range predicate seeks into the (col, id) index.
+ *
+ * created_at is nullable. Rows without it sort as if later than every timestamp (Oracle's
+ * default: NULLS LAST ascending, NULLS FIRST descending), so sorting by createdAt returns
+ * the same rows and total as any other sort key.
+ */
+@Repository
+public class UserQueryRepository {
+
+    // Shared with UserBulkRepository, which reads the same columns for exports
+    static final String COLUMNS = "id, name, email, phone, created_at, updated_at, version";
+
+    static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> {
+        User user = new User(rs.getString("name"), rs.getString("email"), rs.getString("phone"));
+        user.setId(rs.getLong("id"));
+        user.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        user.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    };
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Run the query
+     * @return The page of users, and the total when requested (the cursor is left to the caller)
+     */
+    public UserQueryResult find(UserQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String filters = filters(query, params);
+        String column = query.getSortKey().getColumn();
+        String direction = query.isDescending() ? "DESC" : "ASC";
+
+        // On a keyset page the analytic count would still scan the whole filtered set
+        // before the seek, however deep the page
+        boolean analyticTotal = query.isIncludeTotal() && !query.isKeyset();
+
+        StringBuilder sql = new StringBuilder();
+        if (analyticTotal) {
+            // The analytic count is evaluated over every filtered row, before the keyset
+            // predicate and row limiting, so it is the total for the filters alone
+            sql.append("SELECT ").append(COLUMNS).append(", total_count FROM (")
+               .append("SELECT ").append(COLUMNS).append(", COUNT(*) OVER () AS total_count FROM users")
+               .append(filters).append(") WHERE 1 = 1");
+        } else {
+            sql.append("SELECT ").append(COLUMNS).append(" FROM users").append(filters);
+        }
+        sql.append(keyset(query, params));
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction);
+        if (query.getSortKey() == UserQuery.SortKey.CREATED_AT) {
+            // Spelled out so every database agrees with the keyset predicate
+            sql.append(query.isDescending() ? " NULLS FIRST" : " NULLS LAST");
+        }
+        if (query.getSortKey() != UserQuery.SortKey.ID) {
+            // ID breaks ties so the order (and the cursor) is deterministic
+            sql.append(", id ").append(direction);
+        }
+        sql.append(" OFFSET :offset ROWS FETCH NEXT :limit ROWS ONLY");
+        params.addValue("offset", query.getOffset());
+        params.addValue("limit", query.getLimit());
+
+        List<User> users = new ArrayList<>(query.getLimit());
+        long[] total = {-1};
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            users.add(USER_ROW_MAPPER.mapRow(rs, users.size()));
+            if (analyticTotal) {
+                total[0] = rs.getLong("total_count");
+            }
+        });
+
+        if (!query.isIncludeTotal()) {
+            return new UserQueryResult(users, null, null);
+        }
+        if (!analyticTotal || users.isEmpty()) {
+            // Keyset page, or no row to carry the analytic count (e.g. offset past the end)
+            return new UserQueryResult(users, count(query), null);
+        }
+        return new UserQueryResult(users, total[0], null);
+    }
+
+    /**
+     * Number of users matching the query's filters, ignoring paging
+     */
+    public long count(UserQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        // Executes: SELECT COUNT(*) FROM users WHERE <filters>
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users" + filters(query, params), params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    // WHERE clause for the filters (never the keyset predicate)
+    private static String filters(UserQuery query, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (query.getNamePrefix() != null) {
+            where.append(" AND UPPER(name) LIKE :namePrefix ESCAPE '\\'");
+            params.addValue("namePrefix", prefixPattern(query.getNamePrefix().toUpperCase(Locale.ROOT)));
+        }
+        if (query.getEmailPrefix() != null) {
+            where.append(" AND UPPER(email) LIKE :emailPrefix ESCAPE '\\'");
+            params.addValue("emailPrefix", prefixPattern(query.getEmailPrefix().toUpperCase(Locale.ROOT)));
+        }
+        if (query.getPhonePrefix() != null) {
+            where.append(" AND phone LIKE :phonePrefix ESCAPE '\\'");
+            params.addValue("phonePrefix", prefixPattern(query.getPhonePrefix()));
+        }
+        if (query.getCreatedFrom() != null) {
+            where.append(" AND created_at >= :createdFrom");
+            params.addValue("createdFrom", query.getCreatedFrom());
+        }
+        if (query.getCreatedTo() != null) {
+            where.append(" AND created_at < :createdTo");
+            params.addValue("createdTo", query.getCreatedTo());
+        }
+        return where.toString();
+    }
+
+    // Seek past the last row of the previous page
+    private static String keyset(UserQuery query, MapSqlParameterSource params) {
+        if (!query.isKeyset()) {
+            return "";
+        }
+        String column = query.getSortKey().getColumn();
+        String inclusive = query.isDescending() ? "<=" : ">=";
+        String exclusive = query.isDescending() ? "<" : ">";
+        params.addValue("afterId", query.getAfterId());
+        if (query.getSortKey() == UserQuery.SortKey.ID) {
+            return " AND id " + exclusive + " :afterId";
+        }
+        if (query.getSortKey() == UserQuery.SortKey.CREATED_AT) {
+            return createdAtKeyset(query, params);
+        }
+        params.addValue("afterValue", sortValue(query));
+        return " AND " + column + " " + inclusive + " :afterValue"
+                + " AND (" + column + " " + exclusive + " :afterValue OR id " + exclusive + " :afterId)";
+    }
+
+    // The NULL group comes after every timestamp ascending and before them descending
+    private static String createdAtKeyset(UserQuery query, MapSqlParameterSource params) {
+        boolean afterNull = query.getAfterValue().isEmpty();
+        if (query.isDescending()) {
+            if (afterNull) {
+                return " AND (created_at IS NOT NULL OR id < :afterId)";
+            }
+            params.addValue("afterValue", sortValue(query));
+            return " AND created_at <= :afterValue AND (created_at < :afterValue OR id < :afterId)";
+        }
+        if (afterNull) {
+            return " AND created_at IS NULL AND id > :afterId";
+        }
+        params.addValue("afterValue", sortValue(query));
+        return " AND (created_at >= :afterValue AND (created_at > :afterValue OR id > :afterId)"
+                + " OR created_at IS NULL)";
+    }
+
+    private static Object sortValue(UserQuery query) {
+        if (query.getSortKey() == UserQuery.SortKey.CREATED_AT) {
+            return LocalDateTime.parse(query.getAfterValue());
+        }
+        return query.getAfterValue();
+    }
+
+    private static String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.userapi.repository;
 
 import com.example.userapi.entity.User;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // @Repository annotation marks this interface as a Spring repository component
 // This enables Spring to create a proxy implementation with database operations
+// UserRepositoryCustom adds column-projection queries implemented in UserRepositoryImpl
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    
+    // Oracle rejects IN lists longer than 1000 elements; every IN-list query (lookups by ID,
+    // duplicate-email checks) is chunked to at most this many values
+    int MAX_IN_LIST_SIZE = 1000;
     
     // JpaRepository<User, Long> provides built-in CRUD methods:
     // - save(User user) - INSERT or UPDATE
@@ -31,6 +43,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Translates to: SELECT * FROM users WHERE UPPER(name) LIKE UPPER('%?%')
     List<User> findByNameContainingIgnoreCase(String name);
     
+    // Same search with a row limit, used when the in-memory search index is not available
+    // Fetch size matches the default page size, so a page arrives in one round trip
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "100"))
+    List<User> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    
+    // Keyset (cursor) pagination: seek past the last id the client has already seen
+    // Unlike OFFSET paging, this walks the primary key index and costs the same for every page
+    // Translates to: SELECT * FROM users WHERE id > ? ORDER BY id ASC FETCH FIRST ? ROWS ONLY
+    // Fetch size matches the default page size, so a page arrives in one round trip
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "100"))
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Forward-only cursor over the whole table, ordered by primary key
+    // HINT_FETCH_SIZE bounds how many rows the Oracle driver buffers per round trip
+    // HINT_READONLY skips the dirty-checking snapshot Hibernate would otherwise keep per row
+    // The returned Stream must be consumed inside a transaction and closed afterwards
+    @QueryHints({
+            @QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllOrderById();
+    
     // Find users by phone number
     // Translates to: SELECT * FROM users WHERE phone = ?
     List<User> findByPhone(String phone);
@@ -39,6 +74,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Translates to: SELECT COUNT(*) > 0 FROM users WHERE email = ?
     boolean existsByEmail(String email);
     
+    // Single-statement update; returns the affected-row count (0 = no such user, or version mismatch)
+    // A duplicate email fails on the unique constraint instead of a separate existsByEmail() check
+    // Bulk updates bypass @Version/@PreUpdate, so version and updated_at are maintained here
+    // expectedVersion = null skips the optimistic-locking check
+    // clearAutomatically evicts stale copies from the persistence context after the bulk update
+    // Translates to: UPDATE users SET name = ?, email = ?, phone = ?, version = version + 1, updated_at = ?
+    //                WHERE id = ? AND (? IS NULL OR version = ?)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE User u SET u.name = :name, u.email = :email, u.phone = :phone, " +
+           "u.version = u.version + 1, u.updatedAt = :now " +
+           "WHERE u.id = :id AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int updateFields(@Param("id") Long id, @Param("name") String name,
+                     @Param("email") String email, @Param("phone") String phone,
+                     @Param("now") java.time.LocalDateTime now,
+                     @Param("expectedVersion") Long expectedVersion);
+    
+    // Single-statement delete; returns the affected-row count (0 = no such user, or version mismatch)
+    // expectedVersion = null skips the optimistic-locking check
+    // Translates to: DELETE FROM users WHERE id = ? AND (? IS NULL OR version = ?)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int deleteRowById(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+    
+    // Set-based duplicate check used by batch writes: one query per chunk instead of one per row
+    // Translates to: SELECT email FROM users WHERE email IN (?, ?, ...)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    // Find the users currently holding any of the given emails
+    // Translates to: SELECT * FROM users WHERE email IN (?, ?, ...)
+    List<User> findByEmailIn(Collection<String> emails);
+    
+    // Which of the given IDs exist
+    // Translates to: SELECT id FROM users WHERE id IN (?, ?, ...)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Users created or updated after a watermark, oldest change first (delta sync)
+    // Translates to: SELECT * FROM users WHERE updated_at > ? ORDER BY updated_at, id FETCH FIRST ? ROWS ONLY
+    // Change sets can run to thousands of rows, so fetch in larger round trips
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u WHERE u.updatedAt > :since ORDER BY u.updatedAt, u.id")
+    List<User> findChangedSince(@Param("since") java.time.LocalDateTime since, Pageable pageable);
+    
     // Custom JPQL query to find users created after a certain date
     // @Query allows writing custom queries in JPQL (Java Persistence Query Language)
     @Query("SELECT u FROM User u WHERE u.createdAt > :date ORDER BY u.createdAt DESC")
@@ -46,7 +125,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Native SQL query example for complex operations
     // nativeQuery = true allows writing raw SQL instead of JPQL
-    @Query(value = "SELECT * FROM users WHERE ROWNUM <= :limit ORDER BY created_at DESC", 
+    // FETCH FIRST is applied after ORDER BY (ROWNUM would be applied before it, returning
+    // arbitrary rows); Oracle reads the newest rows backwards off idx_users_created_at_id.
+    // A backward scan meets NULL created_at first, so DESC NULLS LAST could not use it; users
+    // without created_at are not recent anyway, and leaving them out lets the scan stop after :limit
+    @Query(value = "SELECT * FROM users WHERE created_at IS NOT NULL ORDER BY created_at DESC, id DESC"
+                   + " FETCH FIRST :limit ROWS ONLY",
            nativeQuery = true)
     List<User> findRecentUsers(@Param("limit") int limit);
     
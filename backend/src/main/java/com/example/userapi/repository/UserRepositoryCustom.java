@@ -0,0 +1,26 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.dto.UserField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column-projection queries that Spring Data cannot derive from method names
+ * Implemented by UserRepositoryImpl and exposed through UserRepository
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * One keyset page of users, selecting only the requested columns
+     * @return One map per row (property name -> value), in ID order
+     */
+    List<Map<String, Object>> findFieldsAfter(long afterId, int limit, Set<UserField> fields);
+
+    /**
+     * Case-insensitive name search, selecting only the requested columns
+     * @return One map per row (property name -> value), in ID order
+     */
+    List<Map<String, Object>> findFieldsByNameContaining(String name, int limit, Set<UserField> fields);
+}
@@ -0,0 +1,96 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.dto.UserField;
+import com.example.userapi.entity.User;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projection queries built with the Criteria API
+ *
+ * The SELECT list contains only the requested columns and the result is plain
+ * Tuples, not entities: nothing is registered in the persistence context, no
+ * dirty-checking snapshot is kept, and unrequested columns never leave Oracle.
+ */
+// Spring Data picks this class up by name (UserRepository + "Impl") as the fragment implementation
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    // Upper bound on rows per round trip; the driver allocates its buffer for this many rows
+    private static final int MAX_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(long afterId, int limit, Set<UserField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        // Translates to: SELECT <fields> FROM users WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY
+        query.multiselect(selections(user, fields))
+                .where(cb.greaterThan(user.get("id"), afterId))
+                .orderBy(cb.asc(user.get("id")));
+        return run(query, limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNameContaining(String name, int limit, Set<UserField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        // Translates to: SELECT <fields> FROM users WHERE UPPER(name) LIKE UPPER('%?%') ORDER BY id FETCH FIRST ? ROWS ONLY
+        // Wildcards in the search text are escaped, as Spring Data does for ...Containing queries
+        String pattern = "%" + escapeLike(name.toUpperCase()) + "%";
+        Predicate nameMatches = cb.like(cb.upper(user.get("name")), pattern, LIKE_ESCAPE);
+        query.multiselect(selections(user, fields))
+                .where(nameMatches)
+                .orderBy(cb.asc(user.get("id")));
+        return run(query, limit);
+    }
+
+    // Alias every selected path with its property name so the tuple can be read back by alias
+    private static List<Selection<?>> selections(Root<User> user, Set<UserField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (UserField field : fields) {
+            selections.add(user.get(field.getProperty()).alias(field.getProperty()));
+        }
+        return selections;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private List<Map<String, Object>> run(CriteriaQuery<Tuple> query, int limit) {
+        // Fetch exactly one page per round trip
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(QueryHints.HINT_FETCH_SIZE, Math.min(limit, MAX_FETCH_SIZE))
+                .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element.getAlias()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.entity.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Repository for deletion markers used by GET /api/users/changes
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+    
+    // Deletions after a watermark, oldest first
+    // Translates to: SELECT * FROM user_tombstones WHERE deleted_at > ? ORDER BY deleted_at, user_id
+    @Query("SELECT t FROM UserTombstone t WHERE t.deletedAt > :since ORDER BY t.deletedAt, t.userId")
+    List<UserTombstone> findDeletedSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    // Purge markers that no valid sync token can still ask for
+    // Translates to: DELETE FROM user_tombstones WHERE deleted_at < ?
+    @Modifying
+    @Query("DELETE FROM UserTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
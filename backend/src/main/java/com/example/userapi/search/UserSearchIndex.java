@@ -0,0 +1,479 @@
+package com.example.userapi.search;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process n-gram index over user name, email and phone
+ *
+ * Every field is case-folded and broken into trigrams. A posting list per trigram
+ * holds the slots of the users containing it, so a substring query only has to
+ * verify the users in its rarest trigram. Queries shorter than three characters
+ * use "edge" grams instead (the first one or two characters of each word), which
+ * turns them into word-prefix queries.
+ *
+ * The index is filled from the database once the application is ready and then
+ * kept current from UserChangeEvent after each commit. Until the initial load
+ * finishes, isReady() is false and callers should fall back to the database.
+ *
+ * Writes are serialized on this object; reads never lock. Posting lists are
+ * published as immutable snapshots, so a reader always sees a consistent array.
+ *
+ * A document's slot and postings never change: an update indexes the new version in a
+ * fresh slot and retires the old one by clearing it. Retired slots stay in the posting
+ * lists as tombstones that queries skip, so a write only appends. Once tombstones make
+ * up a quarter of the slots, one compaction pass rebuilds the posting lists without
+ * them and the retired slots become free for reuse.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    // Prefix for edge-gram keys; cannot occur inside folded text
+    private static final char EDGE_MARKER = '\u0000';
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Ranked order for results: best score first, then by name and ID for stable output
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt((Hit h) -> h.score).reversed()
+            .thenComparing(h -> h.doc.name)
+            .thenComparingLong(h -> h.doc.user.getId());
+
+    // Compaction never runs for fewer retired slots than this
+    private static final int MIN_COMPACTION_SLOTS = 1024;
+
+    private final boolean enabled;
+
+    // @Lazy breaks the cycle UserService -> UserSearchIndex -> UserService
+    @Autowired
+    @Lazy
+    private UserService userService;
+
+    // User ID -> indexed document
+    private final Map<Long, Doc> docsById = new ConcurrentHashMap<>();
+
+    // Gram -> slots of the documents containing it
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+    // Slot -> document; retired slots are null until compaction frees them for reuse
+    private volatile Doc[] slots = new Doc[1024];
+
+    private int nextSlot;
+
+    // Cleared slots that posting lists may still reference
+    private int retiredSlots;
+
+    // Slots no posting list references any more, ready for reuse
+    private int[] freeSlots = new int[0];
+
+    private int freeSlotCount;
+
+    private volatile boolean ready;
+
+    // IDs written while the initial load was running; the load must not overwrite them
+    private Set<Long> touchedDuringLoad = new HashSet<>();
+
+    public UserSearchIndex(@Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true once the initial load has finished and queries can be served from memory
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Number of users currently indexed
+     */
+    public int size() {
+        return docsById.size();
+    }
+
+    /**
+     * Find users whose name, email or phone contains the query
+     * Queries of one or two characters match the start of a word instead
+     * @param query Search text (case-insensitive)
+     * @param limit Maximum number of results
+     * @return Best matches first: name matches rank above email, email above phone,
+     *         and exact/prefix matches above plain substrings
+     */
+    public List<User> search(String query, int limit) {
+        String q = fold(query).trim();
+        if (q.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // The rarest gram bounds the candidate set
+        int[] candidates = null;
+        int candidateCount = 0;
+        for (String gram : queryGrams(q)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            Postings.Snapshot snapshot = list.snapshot;
+            if (candidates == null || snapshot.size < candidateCount) {
+                candidates = snapshot.slots;
+                candidateCount = snapshot.size;
+            }
+        }
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+
+        // Every document in the intersection of the query's postings also contains the rarest
+        // gram, so scoring that whole list ranks the full result set; score() rejects the rest.
+        // Min-heap holding the best `limit` hits seen so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Doc[] currentSlots = slots;
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = candidates[i];
+            Doc doc = slot < currentSlots.length ? currentSlots[slot] : null;
+            if (doc == null) {
+                continue;
+            }
+            int score = score(doc, q);
+            if (score > 0) {
+                best.add(new Hit(doc, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        List<User> results = new ArrayList<>(hits.size());
+        // A query racing an update can see both the old and the new slot of one user
+        Set<Long> seen = new HashSet<>();
+        for (Hit hit : hits) {
+            if (seen.add(hit.doc.user.getId())) {
+                results.add(hit.doc.user);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Keep the index in step with committed writes
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(event.getUserId());
+            }
+            if (event.getType() == UserChangeEvent.Type.DELETED) {
+                remove(event.getUserId());
+            } else {
+                put(event.getUser());
+            }
+        }
+    }
+
+    /**
+     * Fill the index from the database in the background once the application is up
+     * Startup is not delayed; searches go to the database until this completes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("User search index disabled; searches will query the database");
+            return;
+        }
+        Thread loader = new Thread(this::load, "user-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        try {
+            userService.streamAllUsers(user -> {
+                synchronized (this) {
+                    // A committed write for this user already beat the load; keep the newer state
+                    if (!touchedDuringLoad.contains(user.getId())) {
+                        put(user);
+                    }
+                }
+            });
+            synchronized (this) {
+                touchedDuringLoad = null;
+                ready = true;
+            }
+            log.info("User search index loaded {} users in {} ms",
+                    docsById.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                touchedDuringLoad = null;
+            }
+            log.error("User search index load failed; searches will keep using the database", e);
+        }
+    }
+
+    // Caller holds the lock
+    private void put(User source) {
+        Doc previous = docsById.get(source.getId());
+        // After-commit events from different threads can arrive out of order; never go backwards
+        if (previous != null && isOlder(source, previous.user)) {
+            return;
+        }
+        int slot = allocateSlot();
+        Doc doc = new Doc(slot, snapshot(source));
+
+        // Publish the document before its postings so a reader never finds a slot without a doc
+        slots[slot] = doc;
+        docsById.put(source.getId(), doc);
+        for (String gram : doc.grams()) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+        }
+        if (previous != null) {
+            retire(previous.slot);
+        }
+    }
+
+    // Caller holds the lock
+    private void remove(Long userId) {
+        Doc previous = docsById.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        retire(previous.slot);
+    }
+
+    // Caller holds the lock; the slot's posting entries stay behind as tombstones
+    private void retire(int slot) {
+        slots[slot] = null;
+        retiredSlots++;
+        if (retiredSlots >= Math.max(MIN_COMPACTION_SLOTS, docsById.size() / 3)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rebuild every posting list without retired slots, then make those slots reusable
+     * Caller holds the lock. Readers keep using the snapshots they already hold.
+     */
+    private void compact() {
+        long started = System.nanoTime();
+        Doc[] current = slots;
+        postings.entrySet().removeIf(entry -> entry.getValue().removeRetired(current));
+        // Every empty slot is now unreferenced: the ones already free and the ones just purged
+        int[] free = new int[freeSlotCount + retiredSlots];
+        int count = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (current[slot] == null) {
+                free[count++] = slot;
+            }
+        }
+        freeSlots = free;
+        freeSlotCount = count;
+        log.debug("User search index compacted {} retired slots in {} ms",
+                retiredSlots, (System.nanoTime() - started) / 1_000_000);
+        retiredSlots = 0;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (nextSlot == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        return nextSlot++;
+    }
+
+    private static boolean isOlder(User candidate, User current) {
+        return candidate.getVersion() != null && current.getVersion() != null
+                && candidate.getVersion() < current.getVersion();
+    }
+
+    // Detached copy so later changes to the source entity never leak into the index
+    private static User snapshot(User source) {
+        User copy = new User(source.getName(), source.getEmail(), source.getPhone());
+        copy.setId(source.getId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+
+    // Grams that every match for the query must contain
+    private static List<String> queryGrams(String q) {
+        if (q.length() < GRAM_LENGTH) {
+            return Collections.singletonList(EDGE_MARKER + q);
+        }
+        List<String> grams = new ArrayList<>(q.length() - GRAM_LENGTH + 1);
+        for (int i = 0; i + GRAM_LENGTH <= q.length(); i++) {
+            grams.add(q.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    // Relevance of a document for an already-folded query; 0 means no match
+    private static int score(Doc doc, String q) {
+        if (doc.name.equals(q)) {
+            return 100;
+        }
+        if (doc.name.startsWith(q)) {
+            return 90;
+        }
+        int inName = doc.name.indexOf(q);
+        if (inName > 0 && !Character.isLetterOrDigit(doc.name.charAt(inName - 1))) {
+            return 80;
+        }
+        if (inName > 0) {
+            return 60;
+        }
+        if (doc.email.startsWith(q)) {
+            return 50;
+        }
+        if (doc.email.contains(q)) {
+            return 40;
+        }
+        if (doc.phone.startsWith(q)) {
+            return 30;
+        }
+        if (doc.phone.contains(q)) {
+            return 20;
+        }
+        return 0;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // One indexed user with its case-folded fields
+    private static final class Doc {
+        final int slot;
+        final User user;
+        final String name;
+        final String email;
+        final String phone;
+
+        Doc(int slot, User user) {
+            this.slot = slot;
+            this.user = user;
+            this.name = fold(user.getName());
+            this.email = fold(user.getEmail());
+            this.phone = fold(user.getPhone());
+        }
+
+        // Trigrams of every field plus edge grams of every word
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String field : new String[] {name, email, phone}) {
+                for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                    grams.add(field.substring(i, i + GRAM_LENGTH));
+                }
+                int wordStart = -1;
+                for (int i = 0; i <= field.length(); i++) {
+                    boolean wordChar = i < field.length() && Character.isLetterOrDigit(field.charAt(i));
+                    if (wordChar && wordStart < 0) {
+                        wordStart = i;
+                    } else if (!wordChar && wordStart >= 0) {
+                        grams.add(EDGE_MARKER + field.substring(wordStart, wordStart + 1));
+                        if (i - wordStart >= 2) {
+                            grams.add(EDGE_MARKER + field.substring(wordStart, wordStart + 2));
+                        }
+                        wordStart = -1;
+                    }
+                }
+            }
+            return grams;
+        }
+    }
+
+    private static final class Hit {
+        final Doc doc;
+        final int score;
+
+        Hit(Doc doc, int score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Growable int list of slots, published to readers as immutable snapshots
+     * Appends reuse spare capacity; only compaction copies, so a reader's snapshot never changes under it
+     */
+    private static final class Postings {
+
+        static final class Snapshot {
+            final int[] slots;
+            final int size;
+
+            Snapshot(int[] slots, int size) {
+                this.slots = slots;
+                this.size = size;
+            }
+        }
+
+        volatile Snapshot snapshot = new Snapshot(new int[4], 0);
+
+        // Caller holds the index lock
+        void add(int slot) {
+            Snapshot current = snapshot;
+            int[] array = current.slots;
+            if (current.size == array.length) {
+                array = Arrays.copyOf(array, array.length * 2);
+            }
+            // Writing beyond current.size is invisible to readers until the new snapshot is published
+            array[current.size] = slot;
+            snapshot = new Snapshot(array, current.size + 1);
+        }
+
+        // Caller holds the index lock; drops entries for cleared slots, returns true when the list became empty
+        boolean removeRetired(Doc[] slots) {
+            Snapshot current = snapshot;
+            int live = 0;
+            for (int i = 0; i < current.size; i++) {
+                if (slots[current.slots[i]] != null) {
+                    live++;
+                }
+            }
+            if (live == current.size) {
+                return false;
+            }
+            int[] copy = new int[Math.max(4, live)];
+            int size = 0;
+            for (int i = 0; i < current.size; i++) {
+                if (slots[current.slots[i]] != null) {
+                    copy[size++] = current.slots[i];
+                }
+            }
+            snapshot = new Snapshot(copy, size);
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.BatchItemResult;
+import com.example.userapi.dto.BatchItemResult.Status;
+import com.example.userapi.entity.User;
+import com.example.userapi.entity.UserTombstone;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.exception.DuplicateEmailException;
+import com.example.userapi.exception.UserNotFoundException;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.repository.UserTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based create/update/delete for many users per request
+ *
+ * Rows are processed in chunks. Each chunk runs in its own transaction and costs
+ * one duplicate/existence query plus JDBC-batched writes, instead of several round
+ * trips per row. If a chunk hits a constraint violation (for example a concurrent
+ * writer took an email between our check and the insert) it is replayed row by row
+ * through UserService so only the offending rows fail.
+ *
+ * This class is deliberately not @Transactional: transactions are per chunk.
+ */
+@Service
+public class UserBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBatchService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTombstoneRepository tombstoneRepository;
+
+    // Used for the row-by-row fallback path
+    @Autowired
+    private UserService userService;
+
+    // Runs each chunk in its own transaction
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Cleared after each chunk so the persistence context does not grow with the request
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows per transaction; should match hibernate.jdbc.batch_size
+    @Value("${app.users.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Insert many users
+     * @param users Users to create, in request order
+     * @return One result per row, in request order
+     */
+    public List<BatchItemResult> createUsers(List<User> users) {
+        BatchItemResult[] results = new BatchItemResult[users.size()];
+        for (int start = 0; start < users.size(); start += effectiveChunkSize()) {
+            int end = Math.min(start + effectiveChunkSize(), users.size());
+            createChunk(users, start, end, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Update many users; each row must carry its ID
+     * @param users Users with their new field values, in request order
+     * @return One result per row, in request order
+     */
+    public List<BatchItemResult> updateUsers(List<User> users) {
+        BatchItemResult[] results = new BatchItemResult[users.size()];
+        for (int start = 0; start < users.size(); start += effectiveChunkSize()) {
+            int end = Math.min(start + effectiveChunkSize(), users.size());
+            updateChunk(users, start, end, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Delete many users by ID
+     * @param ids IDs to delete, in request order
+     * @return One result per ID, in request order
+     */
+    public List<BatchItemResult> deleteUsers(List<Long> ids) {
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        for (int start = 0; start < ids.size(); start += effectiveChunkSize()) {
+            int end = Math.min(start + effectiveChunkSize(), ids.size());
+            deleteChunk(ids, start, end, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void createChunk(List<User> users, int start, int end, BatchItemResult[] results) {
+        // Validation and in-request duplicate detection need no database access
+        Map<String, Integer> candidates = new LinkedHashMap<>(); // email -> row index
+        for (int i = start; i < end; i++) {
+            User user = users.get(i);
+            String violation = validate(user);
+            if (violation != null) {
+                results[i] = BatchItemResult.failure(i, null, Status.INVALID, violation);
+            } else if (candidates.putIfAbsent(user.getEmail(), i) != null) {
+                results[i] = BatchItemResult.failure(i, null, Status.CONFLICT,
+                        "Email " + user.getEmail() + " appears more than once in the request");
+            } else {
+                // Never let a client-supplied ID turn the insert into a merge
+                user.setId(null);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // One set-based duplicate check for the whole chunk
+                Set<String> taken = new HashSet<>(userRepository.findExistingEmails(candidates.keySet()));
+
+                List<Integer> inserted = new ArrayList<>();
+                List<User> toInsert = new ArrayList<>();
+                for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+                    int i = candidate.getValue();
+                    if (taken.contains(candidate.getKey())) {
+                        results[i] = BatchItemResult.failure(i, null, Status.CONFLICT,
+                                "User with email " + candidate.getKey() + " already exists");
+                    } else {
+                        inserted.add(i);
+                        toInsert.add(users.get(i));
+                    }
+                }
+
+                // IDs come from the pooled sequence, inserts go out as JDBC batches on flush
+                // (flushing through the repository proxy translates constraint errors to DataIntegrityViolationException)
+                userRepository.saveAll(toInsert);
+                userRepository.flush();
+
+                for (int i : inserted) {
+                    User saved = users.get(i);
+                    results[i] = BatchItemResult.success(i, saved.getId(), Status.CREATED);
+                    eventPublisher.publishEvent(UserChangeEvent.created(saved));
+                }
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert chunk [{}, {}) hit a constraint violation, retrying row by row", start, end, e);
+            for (int i : candidates.values()) {
+                User user = users.get(i);
+                user.setId(null);
+                results[i] = createOne(i, user);
+            }
+        }
+    }
+
+    private void updateChunk(List<User> users, int start, int end, BatchItemResult[] results) {
+        Map<Long, Integer> candidates = new LinkedHashMap<>(); // id -> row index
+        Set<String> emails = new HashSet<>();
+        for (int i = start; i < end; i++) {
+            User user = users.get(i);
+            Long id = user == null ? null : user.getId();
+            String violation = validate(user);
+            if (violation == null && id == null) {
+                violation = "id is required";
+            }
+            if (violation != null) {
+                results[i] = BatchItemResult.failure(i, id, Status.INVALID, violation);
+            } else if (candidates.containsKey(id)) {
+                results[i] = BatchItemResult.failure(i, id, Status.INVALID,
+                        "User " + id + " appears more than once in the request");
+            } else if (!emails.add(user.getEmail())) {
+                results[i] = BatchItemResult.failure(i, id, Status.CONFLICT,
+                        "Email " + user.getEmail() + " appears more than once in the request");
+            } else {
+                candidates.put(id, i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Two set-based queries per chunk: the rows being updated, and who owns the target emails
+                Map<Long, User> existing = userRepository.findAllById(candidates.keySet()).stream()
+                        .collect(Collectors.toMap(User::getId, u -> u));
+                Map<String, Long> owners = new HashMap<>();
+                for (User owner : userRepository.findByEmailIn(emails)) {
+                    owners.put(owner.getEmail(), owner.getId());
+                }
+
+                List<Integer> updated = new ArrayList<>();
+                for (Map.Entry<Long, Integer> candidate : candidates.entrySet()) {
+                    Long id = candidate.getKey();
+                    int i = candidate.getValue();
+                    User changes = users.get(i);
+                    User target = existing.get(id);
+                    Long owner = owners.get(changes.getEmail());
+                    if (target == null) {
+                        results[i] = BatchItemResult.failure(i, id, Status.NOT_FOUND, "User with ID " + id + " not found");
+                    } else if (owner != null && !owner.equals(id)) {
+                        results[i] = BatchItemResult.failure(i, id, Status.CONFLICT,
+                                "Email " + changes.getEmail() + " is already in use");
+                    } else {
+                        target.setName(changes.getName());
+                        target.setEmail(changes.getEmail());
+                        target.setPhone(changes.getPhone());
+                        updated.add(i);
+                    }
+                }
+
+                // Dirty entities are written as JDBC-batched UPDATEs
+                userRepository.flush();
+
+                for (int i : updated) {
+                    User saved = existing.get(users.get(i).getId());
+                    results[i] = BatchItemResult.success(i, saved.getId(), Status.UPDATED);
+                    eventPublisher.publishEvent(UserChangeEvent.updated(saved));
+                }
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch update chunk [{}, {}) hit a constraint violation, retrying row by row", start, end, e);
+            for (int i : candidates.values()) {
+                results[i] = updateOne(i, users.get(i));
+            }
+        }
+    }
+
+    private void deleteChunk(List<Long> ids, int start, int end, BatchItemResult[] results) {
+        Map<Long, Integer> candidates = new LinkedHashMap<>(); // id -> row index
+        for (int i = start; i < end; i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = BatchItemResult.failure(i, null, Status.INVALID, "id is required");
+            } else if (candidates.putIfAbsent(id, i) != null) {
+                results[i] = BatchItemResult.failure(i, id, Status.INVALID,
+                        "User " + id + " appears more than once in the request");
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // One existence query and one DELETE ... WHERE id IN (...) per chunk
+            Set<Long> existing = new HashSet<>(userRepository.findExistingIds(candidates.keySet()));
+            if (!existing.isEmpty()) {
+                userRepository.deleteAllByIdInBatch(existing);
+                
+                // Tombstones for delta sync, written as one JDBC batch
+                LocalDateTime now = LocalDateTime.now();
+                List<UserTombstone> tombstones = new ArrayList<>(existing.size());
+                for (Long id : existing) {
+                    tombstones.add(new UserTombstone(id, now));
+                }
+                tombstoneRepository.saveAll(tombstones);
+            }
+
+            for (Map.Entry<Long, Integer> candidate : candidates.entrySet()) {
+                Long id = candidate.getKey();
+                int i = candidate.getValue();
+                if (existing.contains(id)) {
+                    results[i] = BatchItemResult.success(i, id, Status.DELETED);
+                    eventPublisher.publishEvent(UserChangeEvent.deleted(id));
+                } else {
+                    results[i] = BatchItemResult.failure(i, id, Status.NOT_FOUND, "User with ID " + id + " not found");
+                }
+            }
+        });
+    }
+
+    // Fallback: one transaction per row via the regular single-user path
+    private BatchItemResult createOne(int index, User user) {
+        try {
+            User saved = userService.createUser(user);
+            return BatchItemResult.success(index, saved.getId(), Status.CREATED);
+        } catch (DuplicateEmailException e) {
+            return BatchItemResult.failure(index, null, Status.CONFLICT, e.getMessage());
+        } catch (RuntimeException e) {
+            return BatchItemResult.failure(index, null, Status.FAILED, e.getMessage());
+        }
+    }
+
+    private BatchItemResult updateOne(int index, User user) {
+        try {
+            User saved = userService.updateUser(user.getId(), user);
+            return BatchItemResult.success(index, saved.getId(), Status.UPDATED);
+        } catch (DuplicateEmailException e) {
+            return BatchItemResult.failure(index, user.getId(), Status.CONFLICT, e.getMessage());
+        } catch (UserNotFoundException e) {
+            return BatchItemResult.failure(index, user.getId(), Status.NOT_FOUND, e.getMessage());
+        } catch (RuntimeException e) {
+            return BatchItemResult.failure(index, user.getId(), Status.FAILED, e.getMessage());
+        }
+    }
+
+    // Bean Validation against the constraints declared on User; null when the row is valid
+    private String validate(User user) {
+        if (user == null) {
+            return "row is empty";
+        }
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private int effectiveChunkSize() {
+        return Math.max(1, Math.min(chunkSize, UserRepository.MAX_IN_LIST_SIZE));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.userapi.service;
+
+import com.example.userapi.event.UserChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the user collection as a whole, used as the ETag of list, search and count responses
+ *
+ * A modification counter is bumped after every committed write, so clients polling an
+ * unchanged collection get a 304 without the endpoint touching the database.
+ *
+ * The counter only sees writes made through this instance. The ETag therefore also
+ * carries a random instance ID (so another instance never validates it) and a time
+ * window (so writes made elsewhere become visible after at most max-staleness).
+ */
+@Component
+public class UserCollectionVersion {
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    private final long maxStalenessMillis;
+
+    public UserCollectionVersion(@Value("${app.etag.collection-max-staleness:60s}") Duration maxStaleness) {
+        this.maxStalenessMillis = Math.max(1, maxStaleness.toMillis());
+    }
+
+    /**
+     * Count every committed create/update/delete
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        modifications.incrementAndGet();
+    }
+
+    /**
+     * @return weak ETag identifying the current state of the collection
+     */
+    public String etag() {
+        long window = System.currentTimeMillis() / maxStalenessMillis;
+        return "W/\"" + instanceId + "-" + modifications.get() + "-" + window + "\"";
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.userapi.service;
+
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory count of users, so GET /api/users/count does not run COUNT(*) per request
+ *
+ * Seeded from the database in the background after startup, adjusted after every committed create/delete
+ * (including batch rows, which publish one event each), and periodically reconciled
+ * against SELECT COUNT(*) to correct drift from writes made outside this instance.
+ *
+ * LongAdder spreads concurrent increments over striped cells, so heavy write traffic
+ * does not contend on a single counter.
+ */
+@Component
+public class UserCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCounter.class);
+
+    private final UserRepository userRepository;
+
+    private final LongAdder count = new LongAdder();
+
+    private volatile boolean seeded;
+
+    // Difference found by the most recent reconciliation (database minus counter)
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    private final Timer reconcileTimer;
+
+    public UserCounter(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.reconcileTimer = Timer.builder("users.count.reconcile")
+                .description("Time spent reconciling the cached user count with COUNT(*)")
+                .register(meterRegistry);
+        Gauge.builder("users.count.drift", lastDrift, AtomicLong::get)
+                .description("Database count minus cached count at the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("users.count", count, LongAdder::sum)
+                .description("Cached number of users")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the maintained count, or an exact COUNT(*) if the counter has not been seeded yet
+     */
+    public long getCount() {
+        if (!seeded) {
+            return userRepository.count();
+        }
+        return count.sum();
+    }
+
+    /**
+     * Seed the counter without holding up readiness; getCount() falls back to COUNT(*)
+     * until this completes, and a failure leaves seeding to the next scheduled reconcile
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        Thread seeder = new Thread(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("Could not seed the cached user count; serving COUNT(*) until the next reconciliation", e);
+            }
+        }, "user-count-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    /**
+     * Adjust the count once a create/delete has committed
+     */
+    @TransactionalEventListener
+    public void onUserChange(UserChangeEvent event) {
+        if (event.getType() == UserChangeEvent.Type.CREATED) {
+            count.increment();
+        } else if (event.getType() == UserChangeEvent.Type.DELETED) {
+            count.decrement();
+        }
+    }
+
+    /**
+     * Compare the counter with COUNT(*) and correct it
+     * If writes land while the query runs, the comparison is skipped until the next run
+     * Synchronized so the startup seed and a scheduled run never both apply the same drift
+     */
+    @Scheduled(fixedDelayString = "${app.users.count.reconcile-interval:60000}",
+               initialDelayString = "${app.users.count.reconcile-interval:60000}")
+    public synchronized void reconcile() {
+        reconcileTimer.record(() -> {
+            long before = count.sum();
+            // Executes: SELECT COUNT(*) FROM users
+            long exact = userRepository.count();
+            long after = count.sum();
+            if (before != after) {
+                log.debug("Skipping user count reconciliation: counter moved during COUNT(*)");
+                return;
+            }
+            long drift = exact - after;
+            lastDrift.set(drift);
+            if (drift != 0) {
+                count.add(drift);
+                if (seeded) {
+                    log.info("Corrected cached user count by {} (now {})", drift, exact);
+                }
+            }
+            seeded = true;
+        });
+    }
+}
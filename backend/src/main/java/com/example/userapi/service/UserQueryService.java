@@ -0,0 +1,194 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.UserQuery;
+import com.example.userapi.dto.UserQueryResult;
+import com.example.userapi.entity.User;
+import com.example.userapi.repository.UserQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Filtered, sorted, paged user queries (GET /api/users/query)
+ *
+ * Pages can be addressed by offset or by an opaque cursor. The cursor holds the sort
+ * key, direction, and the sort value and ID of the last row returned, so the next page
+ * is an index seek instead of skipping rows, and rows inserted meanwhile do not shift it.
+ *
+ * With total=true the count is taken once, on the page without a cursor, and carried in
+ * the cursor, so later pages repeat that snapshot instead of counting every filtered row
+ * again. A cursor from a query without total=true gets one count on its first use.
+ *
+ * The cursor also holds a hash of the filters; replaying it with other filters is
+ * rejected like a sort mismatch. The carried total is signed with a per-instance key:
+ * an edited total, or one issued by another instance or before a restart, is ignored
+ * and counted again.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserQueryService {
+
+    // Version 2 added the filter hash and the total; version 1 cursors are still accepted
+    private static final String CURSOR_PREFIX = "2";
+
+    private static final String CURSOR_PREFIX_V1 = "1";
+
+    private static final String TOTAL_MAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec totalKey = new SecretKeySpec(randomKey(), TOTAL_MAC_ALGORITHM);
+
+    @Autowired
+    private UserQueryRepository userQueryRepository;
+
+    /**
+     * Run a query
+     * @param query Filters, sort and paging
+     * @param cursor nextCursor from a previous response with the same sort, or null
+     * @return One page of users, the total if requested, and the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort or filters
+     */
+    public UserQueryResult query(UserQuery query, String cursor) {
+        Long carriedTotal = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            carriedTotal = applyCursor(query, cursor);
+        }
+        boolean includeTotal = query.isIncludeTotal();
+        if (carriedTotal != null) {
+            // Counted on an earlier page; do not count again
+            query.setIncludeTotal(false);
+        }
+        // Executes: SELECT ... [COUNT(*) OVER ()] FROM users WHERE <filters> ORDER BY <key>, id
+        //           OFFSET ? ROWS FETCH NEXT ? ROWS ONLY
+        // (a keyset page without a carried total runs one SELECT COUNT(*) instead of the analytic count)
+        UserQueryResult result = userQueryRepository.find(query);
+        Long total = carriedTotal != null ? carriedTotal : result.getTotal();
+        List<User> users = result.getUsers();
+        String nextCursor = users.size() == query.getLimit() ? encode(query, users.get(users.size() - 1), total) : null;
+        return new UserQueryResult(users, includeTotal ? total : null, nextCursor);
+    }
+
+    // 2:<sort>:<a|d>:<filter hash>:[<total>.<signature>]:<last id>:<last sort value>
+    private String encode(UserQuery query, User last, Long total) {
+        String filters = filterHash(query);
+        String raw = String.join(":", CURSOR_PREFIX, query.getSortKey().getProperty(),
+                query.isDescending() ? "d" : "a", filters,
+                total != null ? total + "." + sign(filters, total.toString()) : "",
+                String.valueOf(last.getId()), sortValue(query, last));
+        return TOKEN_ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The total carried by the cursor, or null if it has none or its signature does not verify
+     */
+    private Long applyCursor(UserQuery query, String cursor) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The sort value is last and may itself contain ':' (timestamps, names)
+            parts = raw.startsWith(CURSOR_PREFIX_V1 + ":") ? raw.split(":", 5) : raw.split(":", 7);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        boolean v1 = parts.length == 5 && parts[0].equals(CURSOR_PREFIX_V1);
+        if (!v1 && (parts.length != 7 || !parts[0].equals(CURSOR_PREFIX))) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        boolean descending = parts[2].equals("d");
+        if (!parts[1].equals(query.getSortKey().getProperty()) || descending != query.isDescending()) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        // Version 1 cursors carry neither filters nor a total
+        String filters = filterHash(query);
+        if (!v1 && !parts[3].equals(filters)) {
+            throw new IllegalArgumentException("Cursor was issued for different filters");
+        }
+        String afterId = parts[parts.length - 2];
+        String afterValue = parts[parts.length - 1];
+        try {
+            if (query.getSortKey() == UserQuery.SortKey.CREATED_AT && !afterValue.isEmpty()) {
+                // Validate here rather than failing inside the repository; empty means NULL
+                LocalDateTime.parse(afterValue);
+            }
+            query.setAfter(afterValue, Long.parseLong(afterId));
+            return v1 ? null : verifiedTotal(filters, parts[4]);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    // "<total>.<signature>" -> total, or null when absent or not signed by this instance
+    private Long verifiedTotal(String filters, String signedTotal) {
+        int dot = signedTotal.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String total = signedTotal.substring(0, dot);
+        byte[] expected = sign(filters, total).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signedTotal.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual) ? Long.valueOf(total) : null;
+    }
+
+    private String sign(String filters, String total) {
+        try {
+            Mac mac = Mac.getInstance(TOTAL_MAC_ALGORITHM);
+            mac.init(totalKey);
+            byte[] signature = mac.doFinal((filters + ":" + total).getBytes(StandardCharsets.UTF_8));
+            return TOKEN_ENCODER.encodeToString(Arrays.copyOf(signature, 16));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TOTAL_MAC_ALGORITHM + " unavailable", e);
+        }
+    }
+
+    // Hash of the filters as the repository applies them (prefixes are matched case-insensitively)
+    private static String filterHash(UserQuery query) {
+        String normalized = String.join("\0",
+                query.getNamePrefix() != null ? query.getNamePrefix().toUpperCase(Locale.ROOT) : "",
+                query.getEmailPrefix() != null ? query.getEmailPrefix().toUpperCase(Locale.ROOT) : "",
+                Objects.toString(query.getPhonePrefix(), ""),
+                Objects.toString(query.getCreatedFrom(), ""),
+                Objects.toString(query.getCreatedTo(), ""));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return TOKEN_ENCODER.encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private static String sortValue(UserQuery query, User user) {
+        switch (query.getSortKey()) {
+            case NAME:
+                return user.getName();
+            case EMAIL:
+                return user.getEmail();
+            case CREATED_AT:
+                // Empty for a user without created_at (see UserQueryRepository)
+                return user.getCreatedAt() != null ? user.getCreatedAt().toString() : "";
+            default:
+                return String.valueOf(user.getId());
+        }
+    }
+}
@@ -1,13 +1,39 @@
 package com.example.userapi.service;
 
+import com.example.userapi.cache.UserCache;
+import com.example.userapi.cache.UserReadCoalescer;
+import com.example.userapi.dto.UserField;
+import com.example.userapi.dto.UserLookupResult;
 import com.example.userapi.entity.User;
+import com.example.userapi.entity.UserTombstone;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.exception.DataIntegrityErrors;
+import com.example.userapi.exception.DuplicateEmailException;
+import com.example.userapi.exception.UserNotFoundException;
+import com.example.userapi.exception.VersionConflictException;
 import com.example.userapi.repository.UserRepository;
+import com.example.userapi.repository.UserTombstoneRepository;
+import com.example.userapi.search.UserSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 // @Service annotation marks this class as a service layer component
 // Spring will create a singleton instance and manage its lifecycle
@@ -22,20 +48,80 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    // Deletion markers for GET /api/users/changes
+    @Autowired
+    private UserTombstoneRepository tombstoneRepository;
+    
+    // The EntityManager is needed to detach streamed rows so the persistence context stays empty
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Read-through cache in front of the by-ID and by-email lookups
+    @Autowired
+    private UserCache userCache;
+    
+    // Concurrent identical reads that miss the cache share one query
+    @Autowired
+    private UserReadCoalescer readCoalescer;
+    
+    // In-memory n-gram index that answers searches without touching the database
+    @Autowired
+    private UserSearchIndex searchIndex;
+    
+    // Maintained user count, adjusted after each committed create/delete
+    @Autowired
+    private UserCounter userCounter;
+    
+    // Publishes UserChangeEvent after each write; listeners run after commit
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Alternative constructor-based dependency injection (recommended approach)
     // public UserService(UserRepository userRepository) {
     //     this.userRepository = userRepository;
     // }
     
     /**
-     * Retrieve all users from the database
-     * @return List of all users
+     * Retrieve one page of users using keyset pagination
+     * @param afterId Only users with an ID greater than this are returned (0 for the first page)
+     * @param limit Maximum number of users to return
+     * @return Users ordered by ID, at most {@code limit} of them
      */
     @Transactional(readOnly = true) // Optimize read-only transactions
-    public List<User> getAllUsers() {
-        // Calls the built-in findAll() method from JpaRepository
-        // Executes: SELECT * FROM users
-        return userRepository.findAll();
+    public List<User> getUsersAfter(long afterId, int limit) {
+        // Executes: SELECT * FROM users WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Retrieve one page of users with only the requested properties
+     * Rows are read as scalar tuples, so no entities are created or tracked
+     * @param afterId Only users with an ID greater than this are returned (0 for the first page)
+     * @param limit Maximum number of users to return
+     * @param fields Properties to select
+     * @return One map per user, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUserFieldsAfter(long afterId, int limit, Set<UserField> fields) {
+        // Executes: SELECT <fields> FROM users WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY
+        return userRepository.findFieldsAfter(afterId, limit, fields);
+    }
+    
+    /**
+     * Walk every user in ID order without materializing the table in memory
+     * Each row is handed to the consumer and then detached, so heap usage stays
+     * flat no matter how many rows the table holds
+     * @param consumer Callback invoked once per user, inside the read-only transaction
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<User> consumer) {
+        // try-with-resources closes the underlying JDBC ResultSet when we are done
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
     }
     
     /**
@@ -43,11 +129,13 @@ public class UserService {
      * @param id The user's unique identifier
      * @return Optional containing the user if found, empty Optional otherwise
      */
-    @Transactional(readOnly = true)
+    // SUPPORTS: no transaction (and no connection) is opened here, so cache hits never touch the pool
+    // On a miss, the repository call runs in its own read-only transaction
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserById(Long id) {
         // findById returns Optional<User> to handle cases where user doesn't exist
-        // Executes: SELECT * FROM users WHERE id = ?
-        return userRepository.findById(id);
+        // Executes on a cache miss, once per group of concurrent misses: SELECT * FROM users WHERE id = ?
+        return userCache.getById(id, readCoalescer::findById);
     }
     
     /**
@@ -55,98 +143,220 @@ public class UserService {
      * @param email The user's email address
      * @return Optional containing the user if found, empty Optional otherwise
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         // Uses our custom repository method
-        // Executes: SELECT * FROM users WHERE email = ?
-        return userRepository.findByEmail(email);
+        // Executes on a cache miss, once per group of concurrent misses: SELECT * FROM users WHERE email = ?
+        return userCache.getByEmail(email, readCoalescer::findByEmail, readCoalescer::findById);
+    }
+    
+    /**
+     * Find many users by ID in one call
+     * Cached users are served from memory; the rest are read with IN-list queries of at
+     * most 1000 IDs each (Oracle's limit), instead of one query per ID
+     * @param ids IDs in the caller's order; repeats are answered once
+     * @return Existing users in request order, plus the IDs that matched no user
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserLookupResult getUsersByIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, User> found = userCache.getAllById(distinct, misses -> {
+            List<User> loaded = new ArrayList<>(misses.size());
+            for (int start = 0; start < misses.size(); start += UserRepository.MAX_IN_LIST_SIZE) {
+                List<Long> chunk = misses.subList(start, Math.min(start + UserRepository.MAX_IN_LIST_SIZE, misses.size()));
+                // Executes: SELECT * FROM users WHERE id IN (?, ?, ...)
+                loaded.addAll(userRepository.findAllById(chunk));
+            }
+            return loaded;
+        });
+        
+        List<User> users = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            User user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new UserLookupResult(users, missing);
     }
     
     /**
      * Create a new user in the database
+     * There is no separate "does this email exist?" query: the unique constraint on
+     * users.email decides, which costs no extra round trip and cannot race
      * @param user The user object to save
      * @return The saved user with generated ID
-     * @throws RuntimeException if email already exists
+     * @throws DuplicateEmailException if email already exists
      */
     public User createUser(User user) {
-        // Check if user with this email already exists to prevent duplicates
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
-        }
+        // Never let a client-supplied ID or version turn the insert into a merge
+        user.setId(null);
+        user.setVersion(null);
         
-        // save() method performs INSERT if entity has no ID, UPDATE if ID exists
-        // Oracle sequence will generate the ID automatically
-        // Executes: INSERT INTO users (name, email, phone, created_at) VALUES (?, ?, ?, ?)
-        return userRepository.save(user);
+        try {
+            // saveAndFlush() sends the INSERT now, so a constraint violation surfaces here
+            // Oracle sequence will generate the ID automatically
+            // Executes: INSERT INTO users (name, email, phone, created_at) VALUES (?, ?, ?, ?)
+            User savedUser = userRepository.saveAndFlush(user);
+            eventPublisher.publishEvent(UserChangeEvent.created(savedUser));
+            return savedUser;
+            
+        } catch (DataIntegrityViolationException e) {
+            if (DataIntegrityErrors.isUniqueViolation(e)) {
+                throw new DuplicateEmailException(user.getEmail(), e);
+            }
+            throw e;
+        }
     }
     
     /**
-     * Update an existing user
+     * Update an existing user with a single UPDATE statement
      * @param id The ID of the user to update
      * @param updatedUser The user object with updated data
      * @return The updated user
-     * @throws RuntimeException if user not found or email conflict
+     * @throws UserNotFoundException if user not found
+     * @throws DuplicateEmailException if the new email belongs to another user
      */
     public User updateUser(Long id, User updatedUser) {
-        // First check if the user exists
-        Optional<User> existingUserOpt = userRepository.findById(id);
-        if (!existingUserOpt.isPresent()) {
-            throw new RuntimeException("User with ID " + id + " not found");
-        }
-        
-        User existingUser = existingUserOpt.get();
-        
-        // Check for email conflicts (if email is being changed)
-        if (!existingUser.getEmail().equals(updatedUser.getEmail())) {
-            if (userRepository.existsByEmail(updatedUser.getEmail())) {
-                throw new RuntimeException("Email " + updatedUser.getEmail() + " is already in use");
+        return updateUser(id, updatedUser, null);
+    }
+    
+    /**
+     * Update an existing user, optionally only if it is still at the given version
+     * @param id The ID of the user to update
+     * @param updatedUser The user object with updated data
+     * @param expectedVersion Version from the client's If-Match header, or null for an unconditional update
+     * @return The updated user
+     * @throws UserNotFoundException if user not found
+     * @throws VersionConflictException if the user is no longer at expectedVersion
+     * @throws DuplicateEmailException if the new email belongs to another user
+     */
+    public User updateUser(Long id, User updatedUser, Long expectedVersion) {
+        int updatedRows;
+        try {
+            // Executes: UPDATE users SET name=?, email=?, phone=?, version=version+1, updated_at=?
+            //           WHERE id=? AND (? IS NULL OR version=?)
+            updatedRows = userRepository.updateFields(id, updatedUser.getName(),
+                    updatedUser.getEmail(), updatedUser.getPhone(), LocalDateTime.now(), expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            if (DataIntegrityErrors.isUniqueViolation(e)) {
+                throw new DuplicateEmailException(updatedUser.getEmail(), e);
             }
+            throw e;
         }
         
-        // Update the fields
-        existingUser.setName(updatedUser.getName());
-        existingUser.setEmail(updatedUser.getEmail());
-        existingUser.setPhone(updatedUser.getPhone());
+        // Zero affected rows means no such user, or (with If-Match) a newer version
+        if (updatedRows == 0) {
+            throw missingOrConflicting(id, expectedVersion);
+        }
         
-        // Save the updated entity
-        // Executes: UPDATE users SET name=?, email=?, phone=? WHERE id=?
-        return userRepository.save(existingUser);
+        // Read back the row for the response (includes columns we did not set, like created_at)
+        // Executes: SELECT * FROM users WHERE id = ?
+        User savedUser = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        eventPublisher.publishEvent(UserChangeEvent.updated(savedUser));
+        return savedUser;
     }
     
     /**
-     * Delete a user by ID
+     * Delete a user by ID with a single DELETE statement
      * @param id The ID of the user to delete
      * @return true if user was deleted, false if user didn't exist
      */
     public boolean deleteUser(Long id) {
-        // Check if user exists before attempting to delete
-        if (userRepository.existsById(id)) {
-            // deleteById() method from JpaRepository
-            // Executes: DELETE FROM users WHERE id = ?
-            userRepository.deleteById(id);
-            return true;
+        return deleteUser(id, null);
+    }
+    
+    /**
+     * Delete a user by ID, optionally only if it is still at the given version
+     * @param id The ID of the user to delete
+     * @param expectedVersion Version from the client's If-Match header, or null for an unconditional delete
+     * @return true if user was deleted, false if user didn't exist
+     * @throws VersionConflictException if the user is no longer at expectedVersion
+     */
+    public boolean deleteUser(Long id, Long expectedVersion) {
+        // The affected-row count tells us whether the user existed, no existsById() needed
+        // Executes: DELETE FROM users WHERE id = ? AND (? IS NULL OR version = ?)
+        if (userRepository.deleteRowById(id, expectedVersion) == 0) {
+            RuntimeException failure = missingOrConflicting(id, expectedVersion);
+            if (failure instanceof VersionConflictException) {
+                throw failure;
+            }
+            return false;
         }
-        return false;
+        // Leave a tombstone in the same transaction so delta sync clients learn about the delete
+        // Executes: INSERT INTO user_tombstones (user_id, deleted_at) VALUES (?, ?)
+        tombstoneRepository.save(new UserTombstone(id, LocalDateTime.now()));
+        eventPublisher.publishEvent(UserChangeEvent.deleted(id));
+        return true;
+    }
+    
+    // A conditional write matched no rows: find out why (only runs on the failure path)
+    private RuntimeException missingOrConflicting(Long id, Long expectedVersion) {
+        if (expectedVersion != null && userRepository.existsById(id)) {
+            return new VersionConflictException(id, expectedVersion);
+        }
+        return new UserNotFoundException(id);
     }
     
     /**
-     * Search users by name (case-insensitive partial match)
-     * @param name The name to search for
-     * @return List of matching users
+     * Search users by name, email or phone (case-insensitive partial match)
+     * Served from the in-memory search index once it has loaded; until then
+     * (or when the index is disabled) falls back to a name-only database query
+     * @param name The text to search for
+     * @param limit Maximum number of results
+     * @return List of matching users, best matches first
      */
-    @Transactional(readOnly = true)
-    public List<User> searchUsersByName(String name) {
-        // Uses our custom repository method
-        // Executes: SELECT * FROM users WHERE UPPER(name) LIKE UPPER('%?%')
-        return userRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<User> searchUsersByName(String name, int limit) {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(name, limit);
+        }
+        // Concurrent identical searches share one query
+        // Executes: SELECT * FROM users WHERE UPPER(name) LIKE UPPER('%?%') FETCH FIRST ? ROWS ONLY
+        return readCoalescer.searchByName(name, limit);
+    }
+    
+    /**
+     * Search users like {@link #searchUsersByName}, returning only the requested properties
+     * Index hits are projected from the users the index already holds in memory;
+     * the database fallback selects only the requested columns
+     * @param name The text to search for
+     * @param limit Maximum number of results
+     * @param fields Properties to include
+     * @return One map per matching user
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Map<String, Object>> searchUserFieldsByName(String name, int limit, Set<UserField> fields) {
+        if (searchIndex.isReady()) {
+            List<User> users = searchIndex.search(name, limit);
+            List<Map<String, Object>> rows = new ArrayList<>(users.size());
+            for (User user : users) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (UserField field : fields) {
+                    row.put(field.getProperty(), field.readFrom(user));
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+        // Executes: SELECT <fields> FROM users WHERE UPPER(name) LIKE UPPER('%?%') ORDER BY id FETCH FIRST ? ROWS ONLY
+        return userRepository.findFieldsByNameContaining(name, limit, fields);
     }
     
     /**
      * Get the total count of users
-     * @return Total number of users in the database
+     * @param exact true to run COUNT(*) instead of using the maintained counter
+     * @return Total number of users
      */
-    @Transactional(readOnly = true)
-    public long getUserCount() {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getUserCount(boolean exact) {
+        if (!exact) {
+            // Maintained in memory, no database access
+            return userCounter.getCount();
+        }
         // count() method from JpaRepository
         // Executes: SELECT COUNT(*) FROM users
         return userRepository.count();
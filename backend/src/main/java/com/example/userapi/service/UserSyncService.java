@@ -0,0 +1,136 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.UserChanges;
+import com.example.userapi.entity.User;
+import com.example.userapi.entity.UserTombstone;
+import com.example.userapi.exception.SyncTokenExpiredException;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.repository.UserTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Delta sync: which users changed since a client's last token
+ *
+ * A token is an opaque, encoded point in time. Changes are read from users.updated_at
+ * and user_tombstones.deleted_at, both indexed, so a poll costs O(changes) instead of
+ * O(table).
+ *
+ * Timestamps are assigned before commit, so a slow transaction can commit a change
+ * stamped slightly before a token another client already received. Each query
+ * therefore re-reads an overlap window before the token. Changes inside that window
+ * can be delivered twice, which is harmless because upserts and deletes are idempotent.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSyncService.class);
+
+    private static final String TOKEN_PREFIX = "1:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTombstoneRepository tombstoneRepository;
+
+    // How far before the token each query looks, to catch late commits
+    @Value("${app.sync.overlap:5s}")
+    private Duration overlap;
+
+    // Tombstones older than this are purged; older tokens get 410 Gone
+    @Value("${app.sync.tombstone-retention:7d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * @return a token for "now", to be taken before a full reload of the user list
+     */
+    public String currentToken() {
+        return encode(Instant.now());
+    }
+
+    /**
+     * Users created, updated or deleted since the token
+     * @param token Token from a previous call
+     * @param limit Maximum number of upserts plus deletes to return
+     * @return The changes and the token to use next time
+     * @throws SyncTokenExpiredException if the token predates tombstone retention,
+     *         or more than limit changes are pending (client should reload in full)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public UserChanges getChangesSince(String token, int limit) {
+        // Taken before querying, so anything committed later is picked up next time
+        Instant queryStart = Instant.now();
+        Instant since = decode(token);
+        if (since.isBefore(queryStart.minus(tombstoneRetention))) {
+            throw new SyncTokenExpiredException("Sync token is older than the tombstone retention; reload all users");
+        }
+
+        LocalDateTime from = LocalDateTime.ofInstant(since.minus(overlap), ZoneId.systemDefault());
+        // Fetch one extra row of each kind to detect "more than limit" without a COUNT
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        // Executes: SELECT * FROM users WHERE updated_at > ? ORDER BY updated_at, id FETCH FIRST ? ROWS ONLY
+        List<User> upserts = userRepository.findChangedSince(from, page);
+        // Executes: SELECT * FROM user_tombstones WHERE deleted_at > ? ORDER BY deleted_at, user_id FETCH FIRST ? ROWS ONLY
+        List<UserTombstone> tombstones = tombstoneRepository.findDeletedSince(from, page);
+
+        if (upserts.size() + tombstones.size() > limit) {
+            throw new SyncTokenExpiredException("More than " + limit + " changes since token; reload all users");
+        }
+
+        List<Long> deletes = new ArrayList<>(tombstones.size());
+        for (UserTombstone tombstone : tombstones) {
+            deletes.add(tombstone.getUserId());
+        }
+        return new UserChanges(upserts, deletes, encode(queryStart));
+    }
+
+    /**
+     * Drop tombstones that no valid token can still ask for
+     */
+    @Scheduled(fixedDelayString = "${app.sync.tombstone-purge-interval:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        // Executes: DELETE FROM user_tombstones WHERE deleted_at < ?
+        int purged = tombstoneRepository.deleteOlderThan(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} user tombstones older than {}", purged, cutoff);
+        }
+    }
+
+    private static String encode(Instant instant) {
+        String raw = TOKEN_PREFIX + instant.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Instant decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Unrecognized sync token");
+            }
+            return Instant.ofEpochMilli(Long.parseLong(raw.substring(TOKEN_PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            // Covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Malformed sync token", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.userapi.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gradient math of AdaptiveConcurrencyLimiter
+ *
+ * Each window is simulated by recording repository calls on the users.repository.calls
+ * timer the limiter reads, then calling adjust() directly instead of waiting for the scheduler.
+ * Limits: initial 100, min 10, max 500, tolerance 1.5, at least 10 samples per window.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Timer repositoryCalls = Timer.builder("users.repository.calls")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+
+    private final AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+    @Test
+    void limitGrowsWhileLatencyIsSteady() {
+        hold(60);
+        window(20, 10);
+        // target = 100 * 1.0 + sqrt(100) = 110; smoothed: 0.8 * 100 + 0.2 * 110 = 102
+        assertEquals(102, limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyClimbsAboveTolerance() {
+        hold(60);
+        window(20, 10);
+        window(20, 100);
+        // long-term 10 + (100 - 10) / 20 = 14.5 ms; gradient max(0.5, 1.5 * 14.5 / 100) = 0.5
+        // target = 102 * 0.5 + sqrt(102) = 61.1; smoothed: 0.8 * 102 + 0.2 * 61.1 = 93.8
+        assertEquals(93, limiter.getLimit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenTrafficDoesNotReachIt() {
+        hold(10);
+        window(20, 10);
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    void windowWithTooFewSamplesLeavesLimitUnchanged() {
+        hold(60);
+        window(5, 10);
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    void limitNeverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter clamped = limiter(95);
+        for (int i = 0; i < 60; i++) {
+            assertTrue(clamped.tryAcquire());
+        }
+        window(clamped, 20, 10);
+        window(clamped, 20, 1000);
+        assertEquals(95, clamped.getLimit());
+    }
+
+    @Test
+    void permitsStopAtTheLimitAndReturnOnRelease() {
+        AdaptiveConcurrencyLimiter small = new AdaptiveConcurrencyLimiter(meterRegistry, 2, 1, 10, 1.5, 10);
+        assertTrue(small.tryAcquire());
+        assertTrue(small.tryAcquire());
+        assertFalse(small.tryAcquire());
+        small.release();
+        assertTrue(small.tryAcquire());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int minLimit) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, 100, minLimit, 500, 1.5, 10);
+    }
+
+    // Requests in flight during the window, so growth is not held back as unused headroom
+    private void hold(int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    private void window(int samples, long latencyMillis) {
+        window(limiter, samples, latencyMillis);
+    }
+
+    private void window(AdaptiveConcurrencyLimiter target, int samples, long latencyMillis) {
+        for (int i = 0; i < samples; i++) {
+            repositoryCalls.record(Duration.ofMillis(latencyMillis));
+        }
+        target.adjust();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.userapi.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * GCRA arithmetic of TokenBucket, driven by explicit timestamps
+ *
+ * 10 tokens per second is one token every 100 ms; a burst of 5 is 500 ms of tolerance.
+ */
+class TokenBucketTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static final long START = 1_000_000_000_000L;
+
+    private final TokenBucket bucket = new TokenBucket(10, 5);
+
+    @Test
+    void fullBucketAdmitsBurstThenReportsWaitForNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1, START), "request " + i + " is within the burst");
+        }
+        assertEquals(100 * MS, bucket.tryAcquire(1, START));
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, START);
+        }
+        assertEquals(0, bucket.tryAcquire(1, START + 100 * MS));
+        assertEquals(100 * MS, bucket.tryAcquire(1, START + 100 * MS));
+        assertEquals(50 * MS, bucket.tryAcquire(1, START + 150 * MS));
+        assertEquals(0, bucket.tryAcquire(2, START + 300 * MS));
+    }
+
+    @Test
+    void rejectedRequestTakesNoTokens() {
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, START);
+        }
+        assertEquals(300 * MS, bucket.tryAcquire(3, START));
+        assertEquals(300 * MS, bucket.tryAcquire(3, START));
+        assertEquals(0, bucket.tryAcquire(3, START + 300 * MS));
+    }
+
+    @Test
+    void idleTimeNeverFillsBeyondBurst() {
+        bucket.tryAcquire(1, START);
+        long later = START + TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1, later));
+        }
+        assertEquals(100 * MS, bucket.tryAcquire(1, later));
+    }
+
+    @Test
+    void costAboveBurstIsCappedSoItCanStillBeAdmitted() {
+        assertEquals(0, bucket.tryAcquire(50, START));
+        // The capped request emptied the bucket
+        assertEquals(100 * MS, bucket.tryAcquire(1, START));
+        // Once full again it is admitted again
+        assertEquals(0, bucket.tryAcquire(50, START + 500 * MS));
+    }
+
+    @Test
+    void concurrentRequestsNeverOverdrawTheBucket() throws Exception {
+        TokenBucket shared = new TokenBucket(1, 100);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (shared.tryAcquire(1, START) == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Integer> future : futures) {
+                admitted += future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(100, admitted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.bulk.UserRowReader.Row;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RFC 4180 parsing in CsvUserRowReader: quoting, line tracking, headers and malformed input
+ */
+class CsvUserRowReaderTest {
+
+    @Test
+    void quotedFieldsMayContainCommasAndLineBreaks() throws IOException {
+        CsvUserRowReader reader = reader("name,email,phone\n"
+                + "\"Doe, Jane\",jane@example.com,5550100\n"
+                + "\"Multi\nLine\",multi@example.com,\n"
+                + "Last,last@example.com,5550101\n");
+
+        Row first = reader.next();
+        assertEquals(2, first.getLine());
+        assertEquals("Doe, Jane", first.getUser().getName());
+        assertEquals("5550100", first.getUser().getPhone());
+
+        Row second = reader.next();
+        assertEquals(3, second.getLine());
+        assertEquals("Multi\nLine", second.getUser().getName());
+        assertNull(second.getUser().getPhone(), "an empty optional field is null");
+
+        // The line break inside the quoted field still counts towards line numbers
+        Row third = reader.next();
+        assertEquals(5, third.getLine());
+        assertEquals("Last", third.getUser().getName());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void doubledQuotesAreLiteralQuotes() throws IOException {
+        CsvUserRowReader reader = reader("name,email\n\"Jane \"\"JJ\"\" Doe\",jj@example.com\n");
+
+        assertEquals("Jane \"JJ\" Doe", reader.next().getUser().getName());
+    }
+
+    @Test
+    void byteOrderMarkAndCrlfAreIgnored() throws IOException {
+        CsvUserRowReader reader = reader("\uFEFFName,Email,Created_At\r\n"
+                + "Jane,jane@example.com,2024-01-31T09:30:00\r\n"
+                + "John,john@example.com,");
+
+        Row jane = reader.next();
+        assertEquals("Jane", jane.getUser().getName());
+        assertEquals("jane@example.com", jane.getUser().getEmail());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 9, 30), jane.getUser().getCreatedAt());
+
+        // Last record without a trailing line break
+        Row john = reader.next();
+        assertEquals("john@example.com", john.getUser().getEmail());
+        assertNull(john.getUser().getCreatedAt());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unterminatedQuoteIsReportedOnTheLineItStarts() throws IOException {
+        CsvUserRowReader reader = reader("name,email\nok,ok@example.com\n\"broken,b@example.com\nmore,m@example.com\n");
+
+        assertEquals("ok@example.com", reader.next().getUser().getEmail());
+        Row broken = reader.next();
+        assertNull(broken.getUser());
+        assertEquals(3, broken.getLine());
+        assertTrue(broken.getError().contains("not closed"), broken.getError());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void runawayQuotedFieldStopsTheImport() throws IOException {
+        StringBuilder csv = new StringBuilder("name,email\n\"");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("x,y@example.com\n");
+        }
+        CsvUserRowReader reader = reader(csv.toString());
+
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void blankLinesAreSkippedAndWrongFieldCountsRejected() throws IOException {
+        CsvUserRowReader reader = reader("name,email\n\nJane,jane@example.com,extra\nJohn,john@example.com\n");
+
+        Row wrong = reader.next();
+        assertEquals(3, wrong.getLine());
+        assertEquals("expected 2 fields but found 3", wrong.getError());
+        assertEquals("John", reader.next().getUser().getName());
+    }
+
+    @Test
+    void badCreatedAtRejectsOnlyThatRow() throws IOException {
+        CsvUserRowReader reader = reader("name,email,createdAt\nJane,jane@example.com,yesterday\n");
+
+        Row row = reader.next();
+        assertNull(row.getUser());
+        assertTrue(row.getError().startsWith("createdAt must be"), row.getError());
+    }
+
+    @Test
+    void headerMustNameTheRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> reader(""));
+        assertThrows(IllegalArgumentException.class, () -> reader("name,phone\nJane,5550100\n"));
+    }
+
+    private static CsvUserRowReader reader(String csv) throws IOException {
+        return new CsvUserRowReader(new StringReader(csv));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.userapi.bulk;
+
+import com.example.userapi.dto.BatchItemResult.Status;
+import com.example.userapi.dto.ImportSummary;
+import com.example.userapi.entity.User;
+import com.example.userapi.repository.UserBulkRepository;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Chunked import against H2: duplicate emails inside the file and already in the
+ * database, and the row-by-row fallback when a chunk insert hits the unique constraint
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkRepository bulkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String run = UUID.randomUUID().toString();
+
+    @Test
+    void duplicatesInTheFileAndInTheDatabaseAreConflicts() throws IOException {
+        userService.createUser(new User("Existing", email("existing"), null));
+
+        ImportSummary summary = importService.importUsers(csv("name,email\n"
+                + "Ann," + email("ann") + "\n"
+                + "Taken," + email("existing") + "\n"
+                + "Ann Again," + email("ann") + "\n"
+                + "Cal," + email("cal") + "\n"), BulkFormat.CSV);
+
+        assertEquals(4, summary.getReceived());
+        assertEquals(2, summary.getImported());
+        assertEquals(2, summary.getRejected());
+        assertError(summary, 4, Status.CONFLICT);
+        assertError(summary, 3, Status.CONFLICT);
+        assertFalse(summary.isErrorsTruncated());
+        assertEquals(1, rowsWithEmail(email("ann")));
+        assertEquals(1, rowsWithEmail(email("existing")));
+        assertEquals(1, rowsWithEmail(email("cal")));
+    }
+
+    @Test
+    void chunkHittingTheUniqueConstraintFallsBackToRowByRow() throws IOException {
+        userService.createUser(new User("Existing", email("existing"), null));
+        // As if a concurrent writer took the email between the duplicate check and the insert
+        UserImportService racing = new UserImportService(bulkRepository, blindDuplicateCheck(), transactionTemplate,
+                validator, eventPublisher, objectMapper, new SimpleMeterRegistry(), 1000, 1000, 100000);
+
+        ImportSummary summary = racing.importUsers(csv("name,email\n"
+                + "Ann," + email("ann") + "\n"
+                + "Taken," + email("existing") + "\n"
+                + "Bad,not-an-email\n"
+                + "Cal," + email("cal") + "\n"), BulkFormat.CSV);
+
+        assertEquals(4, summary.getReceived());
+        assertEquals(2, summary.getImported());
+        assertEquals(2, summary.getRejected());
+        assertError(summary, 4, Status.INVALID);
+        assertError(summary, 3, Status.CONFLICT);
+        assertEquals(1, rowsWithEmail(email("ann")));
+        assertEquals(1, rowsWithEmail(email("existing")));
+        assertEquals(1, rowsWithEmail(email("cal")));
+    }
+
+    // UserRepository whose duplicate-email check never finds anything
+    private UserRepository blindDuplicateCheck() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findExistingEmails")) {
+                        return Collections.emptyList();
+                    }
+                    try {
+                        return method.invoke(userRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static void assertError(ImportSummary summary, long line, Status status) {
+        ImportSummary.RowError error = summary.getErrors().stream()
+                .filter(e -> e.getLine() == line)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no error reported for line " + line));
+        assertEquals(status, error.getStatus(), error.getMessage());
+    }
+
+    private String email(String name) {
+        return name + "-" + run + "@example.com";
+    }
+
+    private int rowsWithEmail(String email) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
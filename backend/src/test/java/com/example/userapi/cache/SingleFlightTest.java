@@ -0,0 +1,166 @@
+package com.example.userapi.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SingleFlight: one load per key, shared results and failures, and forget()
+ */
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 7;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Counter executed = meterRegistry.counter("executed");
+
+    private final Counter coalesced = meterRegistry.counter("coalesced");
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>(executed, coalesced);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        }));
+        awaitInFlight();
+        List<Future<String>> followers = joinFollowers(() -> "unexpected");
+
+        release.countDown();
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, executed.count());
+        assertEquals(FOLLOWERS, coalesced.count());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void leaderFailureReachesEveryFollower() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitInFlight();
+        List<Future<String>> followers = joinFollowers(() -> "unexpected");
+
+        release.countDown();
+        assertSame(failure, cause(leader));
+        for (Future<String> follower : followers) {
+            assertSame(failure, cause(follower));
+        }
+
+        // Nothing is left behind: the next caller runs a fresh load
+        assertEquals(0, flight.inFlight());
+        assertEquals("recovered", flight.execute("k", () -> "recovered"));
+    }
+
+    @Test
+    void forgottenLoadIsNotJoinedByLaterCallers() throws Exception {
+        CountDownLatch releaseStale = new CountDownLatch(1);
+        Future<String> staleLeader = executor.submit(() -> flight.execute("k", () -> {
+            await(releaseStale);
+            return "before write";
+        }));
+        awaitInFlight();
+        List<Future<String>> earlyFollowers = joinFollowers(() -> "unexpected");
+
+        // A write commits
+        flight.forget("k");
+
+        CountDownLatch releaseFresh = new CountDownLatch(1);
+        Future<String> freshLeader = executor.submit(() -> flight.execute("k", () -> {
+            await(releaseFresh);
+            return "after write";
+        }));
+        waitUntil(() -> executed.count() == 2);
+
+        // The stale leader finishing must not remove the fresh flight
+        releaseStale.countDown();
+        assertEquals("before write", staleLeader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : earlyFollowers) {
+            assertEquals("before write", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, flight.inFlight());
+
+        Future<String> lateFollower = executor.submit(() -> flight.execute("k", () -> "unexpected"));
+        waitUntil(() -> coalesced.count() == FOLLOWERS + 1);
+        releaseFresh.countDown();
+        assertEquals("after write", freshLeader.get(5, TimeUnit.SECONDS));
+        assertEquals("after write", lateFollower.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.inFlight());
+    }
+
+    private List<Future<String>> joinFollowers(Supplier<String> loader) {
+        double before = coalesced.count();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.execute("k", loader)));
+        }
+        waitUntil(() -> coalesced.count() == before + FOLLOWERS);
+        return followers;
+    }
+
+    private void awaitInFlight() {
+        waitUntil(() -> flight.inFlight() == 1);
+    }
+
+    private static Throwable cause(Future<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not reached within 5 s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.userapi.cache.SingleFlightTest.waitUntil;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UserIdBatchLoader: when a batch runs, what each caller gets back, and that no caller
+ * is left waiting when the window ends, the leader is interrupted or the query fails
+ *
+ * The repository is a stub whose findAllById records the IDs of every query; negative
+ * IDs do not exist. Windows are a minute long wherever the batch is expected to run early,
+ * so a test that only passes by waiting the window out would time out instead.
+ */
+class UserIdBatchLoaderTest {
+
+    private static final Duration LONG_WINDOW = Duration.ofMinutes(1);
+
+    private final List<List<Long>> queries = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean failNextQuery = new AtomicBoolean();
+
+    private final DistributionSummary batchSizes = DistributionSummary.builder("batch.size")
+            .register(new SimpleMeterRegistry());
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fullBatchRunsWithoutWaitingForTheWindow() throws Exception {
+        UserIdBatchLoader loader = loader(LONG_WINDOW, 3);
+
+        List<Future<Optional<User>>> calls = loadAll(loader, 1L, -2L, 3L);
+
+        assertEquals(1L, calls.get(0).get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        assertTrue(calls.get(1).get(5, TimeUnit.SECONDS).isEmpty(), "a missing ID is empty, not an error");
+        assertEquals(3L, calls.get(2).get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        assertEquals(1, queries.size());
+        assertEquals(3, queries.get(0).size());
+        assertEquals(3, batchSizes.totalAmount());
+    }
+
+    @Test
+    void batchSizeIsCappedAtTheInListLimit() throws Exception {
+        // Configured above what one IN list may hold, so the batch must close at the limit
+        UserIdBatchLoader loader = loader(LONG_WINDOW, UserRepository.MAX_IN_LIST_SIZE * 5);
+        Long[] ids = new Long[UserRepository.MAX_IN_LIST_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1L;
+        }
+
+        List<Future<Optional<User>>> calls = loadAll(loader, ids);
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(ids[i], calls.get(i).get(10, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        assertEquals(1, queries.size());
+        assertEquals(UserRepository.MAX_IN_LIST_SIZE, queries.get(0).size());
+    }
+
+    @Test
+    void windowEndingRunsAPartialBatch() throws Exception {
+        UserIdBatchLoader loader = loader(Duration.ofMillis(50), 100);
+
+        List<Future<Optional<User>>> calls = loadAll(loader, 1L, 2L);
+
+        for (Future<Optional<User>> call : calls) {
+            assertTrue(call.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void queryFailureReachesEveryCallerAndTheNextBatchStillRuns() throws Exception {
+        UserIdBatchLoader loader = loader(LONG_WINDOW, 3);
+        failNextQuery.set(true);
+
+        List<Future<Optional<User>>> calls = loadAll(loader, 1L, 2L, 3L);
+
+        for (Future<Optional<User>> call : calls) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertSame(IllegalStateException.class, e.getCause().getClass());
+        }
+
+        List<Future<Optional<User>>> retry = loadAll(loader, 1L, 2L, 3L);
+        for (Future<Optional<User>> call : retry) {
+            assertTrue(call.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void interruptedLeaderRunsTheBatchForItsFollowers() throws Exception {
+        UserIdBatchLoader loader = loader(LONG_WINDOW, 100);
+        // Platform threads, so the test can see where each caller is blocked
+        CompletableFuture<Optional<User>> leader = new CompletableFuture<>();
+        Thread leaderThread = loadOnThread(loader, 1L, leader);
+        waitUntil(() -> leaderThread.getState() == Thread.State.TIMED_WAITING);
+
+        List<CompletableFuture<Optional<User>>> followers = new ArrayList<>();
+        List<Thread> followerThreads = new ArrayList<>();
+        for (long id = 2; id <= 4; id++) {
+            CompletableFuture<Optional<User>> follower = new CompletableFuture<>();
+            followers.add(follower);
+            followerThreads.add(loadOnThread(loader, id, follower));
+        }
+        waitUntil(() -> followerThreads.stream().allMatch(UserIdBatchLoaderTest::waitingForResult));
+
+        leaderThread.interrupt();
+
+        assertEquals(1L, leader.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        for (int i = 0; i < followers.size(); i++) {
+            assertEquals(i + 2L, followers.get(i).get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        assertEquals(1, queries.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L), queries.get(0));
+    }
+
+    private List<Future<Optional<User>>> loadAll(UserIdBatchLoader loader, Long... ids) {
+        List<Future<Optional<User>>> calls = new ArrayList<>();
+        for (Long id : ids) {
+            calls.add(executor.submit(() -> loader.load(id)));
+        }
+        return calls;
+    }
+
+    private static Thread loadOnThread(UserIdBatchLoader loader, long id, CompletableFuture<Optional<User>> result) {
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(loader.load(id));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // Parked on its share of a batch, not on the lock that admits it to one
+    private static boolean waitingForResult(Thread thread) {
+        if (thread.getState() != Thread.State.WAITING) {
+            return false;
+        }
+        for (StackTraceElement frame : thread.getStackTrace()) {
+            if (frame.getClassName().equals(CompletableFuture.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private UserIdBatchLoader loader(Duration window, int maxBatchSize) {
+        return new UserIdBatchLoader(repository(), window, maxBatchSize, batchSizes);
+    }
+
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAllById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<Long> ids = new ArrayList<>();
+                    ((Iterable<?>) args[0]).forEach(id -> ids.add((Long) id));
+                    queries.add(ids);
+                    if (failNextQuery.getAndSet(false)) {
+                        throw new IllegalStateException("database down");
+                    }
+                    List<User> found = new ArrayList<>();
+                    for (Long id : ids) {
+                        if (id > 0) {
+                            User user = new User("User " + id, "user" + id + "@example.com", null);
+                            user.setId(id);
+                            found.add(user);
+                        }
+                    }
+                    return found;
+                });
+    }
+}
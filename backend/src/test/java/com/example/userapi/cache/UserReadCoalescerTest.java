@@ -0,0 +1,101 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.event.UserChangeEvent;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.userapi.cache.SingleFlightTest.waitUntil;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UserReadCoalescer: a read that starts after a committed write never joins a query
+ * that started before it
+ *
+ * The repository is a stub whose findById blocks until released and names the user
+ * after the query that loaded it ("query 1", "query 2", ...).
+ */
+class UserReadCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final UserReadCoalescer coalescer = new UserReadCoalescer(repository(), meterRegistry, true,
+            Duration.ZERO, 100);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentReadsShareOneQuery() throws Exception {
+        Future<Optional<User>> first = executor.submit(() -> coalescer.findById(1L));
+        waitUntil(() -> queries.get() == 1);
+        Future<Optional<User>> second = executor.submit(() -> coalescer.findById(1L));
+        waitUntil(() -> calls("coalesced") == 1);
+
+        release.countDown();
+        assertEquals("query 1", first.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        assertEquals("query 1", second.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void readAfterCommittedWriteRunsItsOwnQuery() throws Exception {
+        Future<Optional<User>> beforeWrite = executor.submit(() -> coalescer.findById(1L));
+        waitUntil(() -> queries.get() == 1);
+
+        User written = new User("written", "written@example.com", null);
+        written.setId(1L);
+        coalescer.onUserChange(UserChangeEvent.updated(written));
+
+        Future<Optional<User>> afterWrite = executor.submit(() -> coalescer.findById(1L));
+        waitUntil(() -> queries.get() == 2);
+
+        release.countDown();
+        assertEquals("query 1", beforeWrite.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        assertEquals("query 2", afterWrite.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        assertEquals(2, calls("executed"));
+        assertEquals(0, calls("coalesced"));
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("users.coalescing.calls")
+                .tags("operation", "byId", "result", result)
+                .counter()
+                .count();
+    }
+
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    User user = new User("query " + queries.incrementAndGet(), "user@example.com", null);
+                    user.setId((Long) args[0]);
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                    return Optional.of(user);
+                });
+    }
+}
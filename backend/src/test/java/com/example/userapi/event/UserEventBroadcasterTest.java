@@ -0,0 +1,127 @@
+package com.example.userapi.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client that stops reading must not hold up committing writers or other subscribers
+ */
+class UserEventBroadcasterTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StalledEmitter stalled = new StalledEmitter();
+
+    private UserEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        stalled.release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void overflowingStalledSubscriberDoesNotBlockWriters() throws Exception {
+        broadcaster = new UserEventBroadcaster(BUFFER_SIZE, Duration.ofMinutes(1), 2,
+                Duration.ofMinutes(1), meterRegistry);
+        broadcaster.subscribe(stalled);
+
+        broadcaster.onUserChange(UserChangeEvent.deleted(0L));
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS), "first send should reach the stalled client");
+
+        // Fill the buffer and overflow it while the send holds the emitter's lock; the
+        // writer must return even though completing the emitter has to wait for that lock
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (long id = 1; id <= BUFFER_SIZE + 1; id++) {
+                broadcaster.onUserChange(UserChangeEvent.deleted(id));
+            }
+        });
+        assertEquals(1, dropped("overflow"));
+        assertEquals(0, subscriberCount());
+
+        // The other sender thread still delivers to everyone else
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.subscribe(healthy);
+        broadcaster.onUserChange(UserChangeEvent.deleted(42L));
+        assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS), "healthy subscriber should get the event");
+    }
+
+    @Test
+    void subscriberBlockedPastMaxSendTimeIsDropped() throws Exception {
+        broadcaster = new UserEventBroadcaster(BUFFER_SIZE, Duration.ofMinutes(1), 2,
+                Duration.ofMillis(100), meterRegistry);
+        broadcaster.subscribe(stalled);
+
+        broadcaster.onUserChange(UserChangeEvent.deleted(0L));
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS), "first send should reach the stalled client");
+        Thread.sleep(200);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), broadcaster::dropStalledSubscribers);
+        assertEquals(1, dropped("stalled"));
+        assertEquals(0, subscriberCount());
+
+        // Further changes are not buffered for it, so they cannot overflow or block anyone
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (long id = 1; id <= BUFFER_SIZE * 2; id++) {
+                broadcaster.onUserChange(UserChangeEvent.deleted(id));
+            }
+        });
+        assertEquals(0, dropped("overflow"));
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("users.stream.dropped").tag("reason", reason).counter().count();
+    }
+
+    private double subscriberCount() {
+        return meterRegistry.get("users.stream.subscribers").gauge().value();
+    }
+
+    // A client that stopped reading: send blocks inside the emitter's lock, like a
+    // blocking socket write does in ResponseBodyEmitter
+    static class StalledEmitter extends SseEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            throw new IOException("Broken pipe");
+        }
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+}
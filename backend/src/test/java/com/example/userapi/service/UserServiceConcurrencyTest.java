@@ -0,0 +1,78 @@
+package com.example.userapi.service;
+
+import com.example.userapi.entity.User;
+import com.example.userapi.exception.DuplicateEmailException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * UserService.createUser under concurrent inserts of the same email
+ *
+ * Every thread passes the latch together, so the inserts race; the unique constraint
+ * on users.email must let exactly one through and turn the rest into DuplicateEmailException.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class UserServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentCreatesWithSameEmailInsertExactlyOneUser() throws Exception {
+        String email = "race-" + UUID.randomUUID() + "@example.com";
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<User>> results = new ArrayList<>(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                User user = new User("Racer " + i, email, null);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return userService.createUser(user);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int duplicates = 0;
+            for (Future<User> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    created++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(DuplicateEmailException.class, e.getCause());
+                    duplicates++;
+                }
+            }
+
+            assertEquals(1, created);
+            assertEquals(THREADS - 1, duplicates);
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+-- H2 schema for tests and the benchmark profile, mirroring the Oracle DDL in README.md and db/migration
+CREATE SEQUENCE IF NOT EXISTS USER_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id NUMBER(19,0) NOT NULL,
+    name VARCHAR2(100) NOT NULL,
+    email VARCHAR2(150) NOT NULL,
+    phone VARCHAR2(15),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version NUMBER(19,0) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- H2 has no function-based indexes, so the UPPER(name)/UPPER(email) indexes are omitted
+CREATE INDEX IF NOT EXISTS idx_users_name_id ON users(name, id);
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_phone ON users(phone);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
+
+CREATE TABLE IF NOT EXISTS user_tombstones (
+    user_id NUMBER(19,0) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_user_tombstones PRIMARY KEY (user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_tombstones_deleted_at ON user_tombstones(deleted_at);
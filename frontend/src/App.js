@@ -27,6 +27,12 @@ const UserManagementApp = () => {
   // Boolean to show loading state during API calls
   const [loading, setLoading] = useState(false);
   
+  // Boolean to show loading state while appending the next page
+  const [loadingMore, setLoadingMore] = useState(false);
+  
+  // Cursor for the next page of users (null when the last page is loaded)
+  const [nextCursor, setNextCursor] = useState(null);
+  
   // String to display error messages
   const [error, setError] = useState('');
   
@@ -42,25 +48,53 @@ const UserManagementApp = () => {
     fetchUsers();
   }, []);
 
-  // Function to fetch all users from the API
+  // Most times a request refused with 429/503 is retried before giving up
+  const MAX_RETRIES = 3;
+
+  // fetch() that waits out 429 Too Many Requests / 503 Service Unavailable answers
+  // The server's admission control says how long to wait in Retry-After (seconds)
+  const fetchWithRetry = async (url) => {
+    for (let attempt = 0; ; attempt++) {
+      const response = await fetch(url);
+      if ((response.status !== 429 && response.status !== 503) || attempt >= MAX_RETRIES) {
+        return response;
+      }
+      const retryAfter = parseInt(response.headers.get('Retry-After'), 10);
+      const delaySeconds = Number.isNaN(retryAfter) ? 1 : retryAfter;
+      await new Promise(resolve => setTimeout(resolve, delaySeconds * 1000));
+    }
+  };
+
+  // Fetch one page of users; the server sends X-Next-Cursor while more pages exist
+  const fetchPage = async (cursor) => {
+    const url = cursor ? `${API_BASE_URL}?after=${cursor}` : API_BASE_URL;
+    
+    // fetch() makes HTTP GET request to Spring Boot API
+    const response = await fetchWithRetry(url);
+    
+    // Check if response is successful (status 200-299)
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    
+    return {
+      page: await response.json(),
+      next: response.headers.get('X-Next-Cursor')
+    };
+  };
+
+  // Function to fetch the first page of users from the API
+  // Later pages are only requested when the user clicks "Load more"
   const fetchUsers = async () => {
     setLoading(true); // Show loading indicator
     setError(''); // Clear any previous errors
     
     try {
-      // fetch() makes HTTP GET request to Spring Boot API
-      const response = await fetch(API_BASE_URL);
-      
-      // Check if response is successful (status 200-299)
-      if (!response.ok) {
-        throw new Error(`HTTP error! status: ${response.status}`);
-      }
-      
-      // Convert response to JSON
-      const data = await response.json();
+      const { page, next } = await fetchPage(null);
       
       // Update users state with fetched data
-      setUsers(data);
+      setUsers(page);
+      setNextCursor(next);
       
     } catch (err) {
       // Handle any errors during fetch
@@ -72,6 +106,34 @@ const UserManagementApp = () => {
     }
   };
 
+  // Function to append the next page of users to the list
+  const loadMoreUsers = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    
+    setLoadingMore(true);
+    setError('');
+    
+    try {
+      const { page, next } = await fetchPage(nextCursor);
+      
+      // Append in place of rebuilding the whole list
+      setUsers(prevUsers => {
+        const merged = prevUsers.slice();
+        merged.push(...page);
+        return merged;
+      });
+      setNextCursor(next);
+      
+    } catch (err) {
+      setError('Failed to load more users: ' + err.message);
+      console.error('Error loading more users:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Function to create a new user
   const createUser = async (userData) => {
     setLoading(true);
@@ -93,8 +155,11 @@ const UserManagementApp = () => {
 
       const newUser = await response.json();
       
-      // Add new user to the users array
-      setUsers(prevUsers => [...prevUsers, newUser]);
+      // Add new user to the end of the list; if more pages remain, it will
+      // arrive with the last page instead (new users have the highest IDs)
+      if (!nextCursor) {
+        setUsers(prevUsers => [...prevUsers, newUser]);
+      }
       
       setSuccess('User created successfully!');
       
@@ -263,6 +328,8 @@ const UserManagementApp = () => {
       
       const data = await response.json();
       setUsers(data);
+      // Search results come in one response; there is nothing more to load
+      setNextCursor(null);
       
     } catch (err) {
       setError('Failed to search users: ' + err.message);
@@ -418,7 +485,7 @@ const UserManagementApp = () => {
         {/* Users List */}
         <div className="bg-white rounded-lg shadow-md p-6">
           <div className="flex justify-between items-center mb-4">
-            <h2 className="text-xl font-semibold">Users ({users.length})</h2>
+            <h2 className="text-xl font-semibold">Users ({users.length}{nextCursor ? '+' : ''})</h2>
             <button
               onClick={fetchUsers}
               disabled={loading}
@@ -480,6 +547,17 @@ const UserManagementApp = () => {
                   ))}
                 </tbody>
               </table>
+              {nextCursor && (
+                <div className="text-center mt-4">
+                  <button
+                    onClick={loadMoreUsers}
+                    disabled={loadingMore}
+                    className="px-4 py-2 bg-blue-500 text-white rounded-lg hover:bg-blue-600 disabled:opacity-50"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more'}
+                  </button>
+                </div>
+              )}
             </div>
           )}
         </div>